@@ -0,0 +1,165 @@
+package codedraw;
+
+import jdk.jfr.*;
+
+/*
+	Emits Java Flight Recorder events, see Profiler.
+	This file is compiled by the jfr profile in the pom.xml, which is active when building with Java 11 or newer.
+
+	Looking up event types, creating the first event or registering a listener makes JFR set up its internals,
+	which takes up to a few hundred milliseconds. Therefore no event is created until JFR has been started by someone else,
+	for example with -XX:StartFlightRecording or jcmd. Until then each hook only reads a volatile flag.
+	Afterwards an event is only measured if its type is enabled in a running recording.
+*/
+class JfrProfiler extends Profiler {
+	JfrProfiler() { }
+
+	@Override
+	public Object beginDraw() {
+		return FlightRecorder.isInitialized() ? begin(new DrawEvent()) : null;
+	}
+
+	@Override
+	public void endDraw(Object handle, Object drawn, double width, double height) {
+		DrawEvent event = (DrawEvent)handle;
+		if (event != null) {
+			event.end();
+			if (event.shouldCommit()) {
+				event.shape = drawn instanceof String ? (String)drawn : typeName(drawn);
+				event.pixelArea = (long)(width * height);
+				event.commit();
+			}
+		}
+	}
+
+	@Override
+	public Object beginShow() {
+		return FlightRecorder.isInitialized() ? begin(new ShowEvent()) : null;
+	}
+
+	@Override
+	public void endShow(Object handle, int regionWidth, int regionHeight) {
+		ShowEvent event = (ShowEvent)handle;
+		if (event != null) {
+			event.end();
+			if (event.shouldCommit()) {
+				event.pixelArea = (long)regionWidth * regionHeight;
+				event.commit();
+			}
+		}
+	}
+
+	@Override
+	public Object beginPaint() {
+		return FlightRecorder.isInitialized() ? begin(new PaintEvent()) : null;
+	}
+
+	@Override
+	public void endPaint(Object handle) {
+		PaintEvent event = (PaintEvent)handle;
+		if (event != null) {
+			event.end();
+			event.commit();
+		}
+	}
+
+	@Override
+	public void eventPushed(codedraw.Event pushed) {
+		if (FlightRecorder.isInitialized()) {
+			PushEvent event = new PushEvent();
+			if (event.shouldCommit()) {
+				event.eventType = pushed.getClass().getSimpleName();
+				event.commit();
+			}
+		}
+	}
+
+	@Override
+	public Object beginSave() {
+		return FlightRecorder.isInitialized() ? begin(new SaveEvent()) : null;
+	}
+
+	@Override
+	public void endSave(Object handle, String path, ImageFormat format, int width, int height) {
+		SaveEvent event = (SaveEvent)handle;
+		if (event != null) {
+			event.end();
+			if (event.shouldCommit()) {
+				event.path = path;
+				event.format = format.name();
+				event.pixelArea = (long)width * height;
+				event.commit();
+			}
+		}
+	}
+
+	// events of disabled types are not measured
+	private static <T extends jdk.jfr.Event> T begin(T event) {
+		if (!event.isEnabled()) return null;
+
+		event.begin();
+		return event;
+	}
+
+	private static String typeName(Object drawn) {
+		String name = drawn.getClass().getName();
+		return name.substring(name.lastIndexOf('.') + 1);
+	}
+
+	@Name("codedraw.Draw")
+	@Label("Draw")
+	@Category("CodeDraw")
+	@Description("A shape, text or image drawn onto an Image")
+	@StackTrace(false)
+	static class DrawEvent extends jdk.jfr.Event {
+		@Label("Shape")
+		String shape;
+
+		@Label("Pixel Area")
+		@Description("The area of the bounding box of the drawn shape")
+		long pixelArea;
+	}
+
+	@Name("codedraw.Show")
+	@Label("Show")
+	@Category("CodeDraw")
+	@Description("Copying the changed region of an image to the window")
+	@StackTrace(false)
+	static class ShowEvent extends jdk.jfr.Event {
+		@Label("Pixel Area")
+		@Description("The area of the copied region in raster pixels")
+		long pixelArea;
+	}
+
+	@Name("codedraw.Paint")
+	@Label("Paint")
+	@Category("CodeDraw")
+	@Description("Painting the displayed buffer onto the screen")
+	@StackTrace(false)
+	static class PaintEvent extends jdk.jfr.Event { }
+
+	@Name("codedraw.EventPush")
+	@Label("Event Push")
+	@Category("CodeDraw")
+	@Description("An input or window event pushed onto the EventScanner")
+	@StackTrace(false)
+	static class PushEvent extends jdk.jfr.Event {
+		@Label("Event Type")
+		String eventType;
+	}
+
+	@Name("codedraw.Save")
+	@Label("Save")
+	@Category("CodeDraw")
+	@Description("Encoding and writing an image to a file")
+	static class SaveEvent extends jdk.jfr.Event {
+		@Label("Path")
+		String path;
+
+		@Label("Format")
+		String format;
+
+		@Label("Pixel Area")
+		long pixelArea;
+	}
+}
@@ -0,0 +1,36 @@
+package codedraw;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/*
+	Drawing a scaled image with each Interpolation.
+*/
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class DrawImageBenchmark {
+	@Param({"NEAREST_NEIGHBOR", "BILINEAR", "BICUBIC"})
+	public Interpolation interpolation;
+
+	private Image image;
+	private Image sprite;
+
+	@Setup
+	public void setup() {
+		image = new Image(600, 600);
+		sprite = new Image(128, 128, Palette.ORANGE);
+		sprite.setColor(Palette.BLUE);
+		sprite.fillCircle(64, 64, 40);
+	}
+
+	@Benchmark
+	public Image drawImage() {
+		image.drawImage(50, 50, 400, 300, sprite, interpolation);
+		return image;
+	}
+}
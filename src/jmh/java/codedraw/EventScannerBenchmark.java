@@ -0,0 +1,43 @@
+package codedraw;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/*
+	Throughput of pushing events onto the EventScanner and consuming them again.
+	Each invocation pushes and consumes a burst of BATCH events, like a fast mouse between two frames.
+*/
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class EventScannerBenchmark {
+	private static final int BATCH = 1000;
+
+	private EventScanner es;
+	private Event event;
+
+	@Setup
+	public void setup() {
+		es = new EventScanner();
+		event = new WindowCloseEvent();
+	}
+
+	@Benchmark
+	@OperationsPerInvocation(BATCH)
+	public int pushAndPop() {
+		for (int i = 0; i < BATCH; i++) {
+			es.push(event);
+		}
+
+		int count = 0;
+		while (es.hasEventNow()) {
+			es.nextEvent();
+			count++;
+		}
+		return count;
+	}
+}
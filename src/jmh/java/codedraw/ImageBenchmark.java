@@ -0,0 +1,80 @@
+package codedraw;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.awt.Color;
+import java.util.concurrent.TimeUnit;
+
+/*
+	Drawing primitives and pixel access of Image.
+	The scale parameter creates images with the given DPI upscaling, like CodeDraw does on high DPI screens.
+*/
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ImageBenchmark {
+	@Param({"1", "2"})
+	public int scale;
+
+	private Image image;
+	private Image sprite;
+	private int x = 0;
+
+	@Setup
+	public void setup() {
+		image = new Image(600, 600, scale, scale, Palette.WHITE);
+		sprite = new Image(64, 64, Palette.ORANGE);
+		sprite.setColor(Palette.BLUE);
+		sprite.fillCircle(32, 32, 20);
+	}
+
+	@Benchmark
+	public Image drawLine() {
+		image.drawLine(10, 20, 590, 580);
+		return image;
+	}
+
+	@Benchmark
+	public Image fillCircle() {
+		image.fillCircle(300, 300, 100);
+		return image;
+	}
+
+	@Benchmark
+	public Image drawText() {
+		image.drawText(100, 100, "The quick brown fox jumps over the lazy dog");
+		return image;
+	}
+
+	@Benchmark
+	public Image drawPolygon() {
+		image.drawPolygon(100, 100, 500, 120, 450, 480, 300, 550, 120, 400);
+		return image;
+	}
+
+	@Benchmark
+	public Color getPixel() {
+		x = (x + 1) % 600;
+		return image.getPixel(x, 300);
+	}
+
+	@Benchmark
+	public Image setPixel() {
+		x = (x + 1) % 600;
+		image.setPixel(x, 300, Palette.RED);
+		return image;
+	}
+
+	@Benchmark
+	public Image scale() {
+		return Image.scale(sprite, 2.5);
+	}
+
+	@Benchmark
+	public Image rotateClockwise() {
+		return Image.rotateClockwise(image);
+	}
+}
@@ -0,0 +1,32 @@
+package codedraw;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class Matrix2DBenchmark {
+	private Matrix2D matrix;
+	private Point2D point;
+
+	@Setup
+	public void setup() {
+		matrix = Matrix2D.IDENTITY.translate(100, 50).rotate(Math.PI / 6).scale(2, 3);
+		point = new Point2D(12.5, -7.25);
+	}
+
+	@Benchmark
+	public Point2D multiplyPoint() {
+		return matrix.multiply(point);
+	}
+
+	@Benchmark
+	public Matrix2D multiplyMatrix() {
+		return matrix.multiply(matrix);
+	}
+}
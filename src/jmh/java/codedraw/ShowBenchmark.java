@@ -0,0 +1,46 @@
+package codedraw;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.awt.*;
+import java.util.concurrent.TimeUnit;
+
+/*
+	The copy at the heart of CanvasPanel.show: taking the dirty region of the drawn image
+	and copying it into a buffer of the swap chain. Runs without a window.
+*/
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ShowBenchmark {
+	@Param({"1", "2"})
+	public int scale;
+
+	private Image image;
+	private Image buffer;
+
+	@Setup
+	public void setup() {
+		image = new Image(600, 600, scale, scale, Palette.WHITE);
+		buffer = new Image(600, 600, scale, scale, Palette.WHITE);
+		image.takeDirtyRegion();
+	}
+
+	@Benchmark
+	public Image showSmallChange() {
+		image.fillCircle(300, 300, 10);
+		buffer.copyRasterRegion(image, image.takeDirtyRegion());
+		return buffer;
+	}
+
+	@Benchmark
+	public Image showFullCanvas() {
+		image.clear();
+		Rectangle region = image.takeDirtyRegion();
+		buffer.copyRasterRegion(image, region);
+		return buffer;
+	}
+}
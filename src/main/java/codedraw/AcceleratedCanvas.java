@@ -0,0 +1,133 @@
+package codedraw;
+
+import javax.swing.*;
+import java.awt.*;
+import java.awt.event.MouseEvent;
+import java.awt.event.MouseWheelEvent;
+import java.awt.image.BufferStrategy;
+import java.util.function.Consumer;
+
+/*
+	A heavyweight canvas that is placed on top of the CanvasPanel and is rendered to actively from the thread calling show,
+	instead of waiting for Swing to repaint the panel on the event dispatch thread.
+	Mouse events are forwarded to the CanvasPanel, so that the EventHandler does not have to know about this canvas.
+	The canvas must be created and disposed on the event dispatch thread.
+	Rendering and disposing are mutually exclusive, a disposed canvas silently ignores render calls.
+*/
+class AcceleratedCanvas extends Canvas {
+	private static final long serialVersionUID = 1L;
+
+	public static AcceleratedCanvas tryCreate(JPanel parent, int width, int height) {
+		if (GraphicsEnvironment.isHeadless() || !parent.isDisplayable()) return null;
+
+		AcceleratedCanvas canvas = new AcceleratedCanvas(width, height);
+		parent.add(canvas);
+
+		if (canvas.createStrategy()) {
+			return canvas;
+		}
+		else {
+			parent.remove(canvas);
+			return null;
+		}
+	}
+
+	private AcceleratedCanvas(int width, int height) {
+		setBounds(0, 0, width, height);
+		// key events are received by the frame, the canvas must not steal the focus
+		setFocusable(false);
+		enableEvents(AWTEvent.MOUSE_EVENT_MASK | AWTEvent.MOUSE_MOTION_EVENT_MASK | AWTEvent.MOUSE_WHEEL_EVENT_MASK);
+	}
+
+	private final Object strategyLock = new Object();
+	private BufferStrategy strategy;
+	private boolean isDisposed = false;
+	private volatile Consumer<Graphics> lastPainter = null;
+
+	private boolean createStrategy() {
+		try {
+			createBufferStrategy(2);
+			strategy = getBufferStrategy();
+		}
+		catch (IllegalStateException e) {
+			return false;
+		}
+
+		// software pipelines also provide a buffer strategy, which would only add another copy
+		return strategy != null && strategy.getCapabilities().getBackBufferCapabilities().isAccelerated();
+	}
+
+	public void render(Consumer<Graphics> painter) {
+		lastPainter = painter;
+
+		synchronized (strategyLock) {
+			if (isDisposed) return;
+
+			do {
+				do {
+					Graphics graphics = strategy.getDrawGraphics();
+					try {
+						painter.accept(graphics);
+					}
+					finally {
+						graphics.dispose();
+					}
+				} while (strategy.contentsRestored());
+
+				strategy.show();
+			} while (strategy.contentsLost());
+		}
+
+		Toolkit.getDefaultToolkit().sync();
+	}
+
+	public void dispose() {
+		synchronized (strategyLock) {
+			if (isDisposed) return;
+			isDisposed = true;
+			strategy.dispose();
+		}
+
+		Container parent = getParent();
+		if (parent != null) {
+			parent.remove(this);
+		}
+	}
+
+	// called by the event dispatch thread when the canvas is uncovered or moved to another screen
+	@Override
+	public void paint(Graphics graphics) {
+		Consumer<Graphics> painter = lastPainter;
+		if (painter != null) {
+			painter.accept(graphics);
+		}
+	}
+
+	@Override
+	public void update(Graphics graphics) {
+		// the default implementation clears the canvas first, which causes flickering
+		paint(graphics);
+	}
+
+	@Override
+	protected void processMouseEvent(MouseEvent e) {
+		forwardToParent(e);
+	}
+
+	@Override
+	protected void processMouseMotionEvent(MouseEvent e) {
+		forwardToParent(e);
+	}
+
+	@Override
+	protected void processMouseWheelEvent(MouseWheelEvent e) {
+		forwardToParent(e);
+	}
+
+	private void forwardToParent(MouseEvent e) {
+		Container parent = getParent();
+		if (parent != null) {
+			parent.dispatchEvent(SwingUtilities.convertMouseEvent(this, e, parent));
+		}
+	}
+}
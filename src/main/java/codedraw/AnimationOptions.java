@@ -0,0 +1,108 @@
+package codedraw;
+
+/**
+ * AnimationOptions configure how an {@link Animation} is run.
+ * Pass them to {@link CodeDraw#run(Animation, int, int, int, int, AnimationOptions)},
+ * {@link BorderlessWindow#run(Animation, int, int, int, int, AnimationOptions)}
+ * or {@link FullScreen#run(Animation, Screen, int, int, AnimationOptions)}.
+ * <pre>{@code
+ * AnimationOptions options = new AnimationOptions();
+ * options.setPresentationMode(PresentationMode.ACCELERATED);
+ * options.setAdaptiveQuality(true);
+ * options.setPerformanceOverlay(true);
+ * CodeDraw.run(animation, 1920, 1080, 144, 60, options);
+ * }</pre>
+ * Changing the options after the animation has started has no effect.
+ */
+public class AnimationOptions {
+	/**
+	 * Creates AnimationOptions where all options are disabled.
+	 */
+	public AnimationOptions() { }
+
+	private PresentationMode presentationMode = PresentationMode.SINGLE_BUFFERED;
+	private boolean isAdaptiveQuality = false;
+	private boolean isPerformanceOverlay = false;
+	private volatile FrameStats frameStats = null;
+
+	/**
+	 * Defines how the canvas is handed over to the window after each frame.
+	 * @return the presentation mode of the animation window.
+	 */
+	public PresentationMode getPresentationMode() {
+		return presentationMode;
+	}
+
+	/**
+	 * Defines how the canvas is handed over to the window after each frame.
+	 * See {@link PresentationMode} for the available modes.
+	 * The presentation mode is {@link PresentationMode#SINGLE_BUFFERED} per default.
+	 * @param presentationMode the presentation mode of the animation window.
+	 */
+	public void setPresentationMode(PresentationMode presentationMode) {
+		if (presentationMode == null) throw createParameterNullException("presentationMode");
+
+		this.presentationMode = presentationMode;
+	}
+
+	/**
+	 * Whether the display quality is adapted to hold the target frame rate.
+	 * Adaptive quality is disabled by default.
+	 * @return whether adaptive quality is enabled.
+	 */
+	public boolean isAdaptiveQuality() {
+		return isAdaptiveQuality;
+	}
+
+	/**
+	 * When adaptive quality is enabled, the time it takes the window to paint each frame is measured.
+	 * If painting the most recent frames takes longer than the time available per frame,
+	 * the canvas is displayed with a faster {@link Interpolation} from {@link Interpolation#BICUBIC}
+	 * down to {@link Interpolation#NEAREST_NEIGHBOR}.
+	 * Once there is enough time left per frame the quality is raised again step by step.
+	 * The interpolation only matters on screens where the canvas is scaled, such as high DPI screens.
+	 * What is drawn onto the canvas is never changed.
+	 * @param isAdaptiveQuality whether adaptive quality is enabled.
+	 */
+	public void setAdaptiveQuality(boolean isAdaptiveQuality) {
+		this.isAdaptiveQuality = isAdaptiveQuality;
+	}
+
+	/**
+	 * Whether a frame time graph is displayed in the top left corner of the window.
+	 * The performance overlay is disabled by default.
+	 * @return whether the performance overlay is displayed.
+	 */
+	public boolean isPerformanceOverlay() {
+		return isPerformanceOverlay;
+	}
+
+	/**
+	 * Displays a graph of the recent frame times in the top left corner of the window
+	 * together with the 50th, 95th and 99th percentile and the number of dropped frames.
+	 * The overlay is only displayed and never drawn onto the canvas.
+	 * @param isPerformanceOverlay whether the performance overlay is displayed.
+	 */
+	public void setPerformanceOverlay(boolean isPerformanceOverlay) {
+		this.isPerformanceOverlay = isPerformanceOverlay;
+	}
+
+	/**
+	 * Gets the frame timing statistics of the window the animation runs in.
+	 * The statistics are available as soon as the animation has started,
+	 * for example they can be read in {@link Animation#simulate()}.
+	 * See {@link FrameStats} for more details.
+	 * @return the frame statistics or null if the animation has not been started with these options.
+	 */
+	public FrameStats getFrameStats() {
+		return frameStats;
+	}
+
+	void setFrameStats(FrameStats frameStats) {
+		this.frameStats = frameStats;
+	}
+
+	private static IllegalArgumentException createParameterNullException(String parameterName) {
+		return new IllegalArgumentException("The parameter " + parameterName + " cannot be null.");
+	}
+}
@@ -0,0 +1,157 @@
+package codedraw;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+
+/*
+ * Writes JPEG frames into an AVI 1.0 container with a single MJPEG video stream.
+ * The header is written with placeholders first and completed in close,
+ * once the number of frames and the size of the file are known.
+ * AVI 1.0 stores sizes as unsigned 32 bit integers, which limits the file to 4 GB.
+ */
+class AviWriter implements AutoCloseable {
+	private static final int HEADER_SIZE = 224;
+	private static final int MOVI_POSITION = 220;
+	private static final int AVIF_HASINDEX = 0x10;
+	private static final int AVIIF_KEYFRAME = 0x10;
+	private static final long MAX_FILE_SIZE = 0xFFFFFFFFL;
+
+	AviWriter(String pathToVideo, int width, int height, int framesPerSecond) throws IOException {
+		this.channel = FileChannel.open(
+				Paths.get(pathToVideo),
+				StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING
+		);
+		this.width = width;
+		this.height = height;
+		this.framesPerSecond = framesPerSecond;
+		this.position = writeFully(header(0, 0, 0));
+	}
+
+	private final FileChannel channel;
+	private final int width;
+	private final int height;
+	private final int framesPerSecond;
+	private final ByteArrayOutputStream index = new ByteArrayOutputStream();
+	private final ByteBuffer chunkHeader = ByteBuffer.allocate(8).order(ByteOrder.LITTLE_ENDIAN);
+	private long position;
+	private int frameCount = 0;
+	private int largestFrame = 0;
+
+	public void writeFrame(byte[] jpeg, int length) throws IOException {
+		int paddedLength = length + (length & 1);
+		if (position + 8 + paddedLength + index.size() + 24 > MAX_FILE_SIZE) {
+			throw new IOException("The video has become too large for the AVI format.");
+		}
+
+		writeIndexEntry(position - MOVI_POSITION, length);
+
+		chunkHeader.clear();
+		chunkHeader.put(fourCC("00dc")).putInt(length).flip();
+		position += writeFully(chunkHeader);
+		position += writeFully(ByteBuffer.wrap(jpeg, 0, length));
+		if (paddedLength != length) {
+			position += writeFully(ByteBuffer.wrap(new byte[1]));
+		}
+
+		frameCount++;
+		largestFrame = Math.max(largestFrame, length);
+	}
+
+	public int getFrameCount() {
+		return frameCount;
+	}
+
+	@Override
+	public void close() throws IOException {
+		try {
+			long moviSize = position - MOVI_POSITION;
+
+			chunkHeader.clear();
+			chunkHeader.put(fourCC("idx1")).putInt(index.size()).flip();
+			position += writeFully(chunkHeader);
+			position += writeFully(ByteBuffer.wrap(index.toByteArray()));
+
+			channel.position(0);
+			writeFully(header(frameCount, moviSize, position - 8));
+		}
+		finally {
+			channel.close();
+		}
+	}
+
+	private ByteBuffer header(int frames, long moviSize, long riffSize) {
+		int microsecondsPerFrame = 1_000_000 / framesPerSecond;
+		int suggestedBufferSize = largestFrame + 8;
+
+		ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE).order(ByteOrder.LITTLE_ENDIAN);
+		header.put(fourCC("RIFF")).putInt((int)riffSize).put(fourCC("AVI "));
+		header.put(fourCC("LIST")).putInt(192).put(fourCC("hdrl"));
+
+		header.put(fourCC("avih")).putInt(56);
+		header.putInt(microsecondsPerFrame);
+		header.putInt(suggestedBufferSize * framesPerSecond);
+		header.putInt(0);
+		header.putInt(AVIF_HASINDEX);
+		header.putInt(frames);
+		header.putInt(0);
+		header.putInt(1);
+		header.putInt(suggestedBufferSize);
+		header.putInt(width);
+		header.putInt(height);
+		header.putInt(0).putInt(0).putInt(0).putInt(0);
+
+		header.put(fourCC("LIST")).putInt(116).put(fourCC("strl"));
+
+		header.put(fourCC("strh")).putInt(56);
+		header.put(fourCC("vids")).put(fourCC("MJPG"));
+		header.putInt(0);
+		header.putShort((short)0).putShort((short)0);
+		header.putInt(0);
+		header.putInt(1);
+		header.putInt(framesPerSecond);
+		header.putInt(0);
+		header.putInt(frames);
+		header.putInt(suggestedBufferSize);
+		header.putInt(-1);
+		header.putInt(0);
+		header.putShort((short)0).putShort((short)0).putShort((short)width).putShort((short)height);
+
+		header.put(fourCC("strf")).putInt(40);
+		header.putInt(40);
+		header.putInt(width);
+		header.putInt(height);
+		header.putShort((short)1);
+		header.putShort((short)24);
+		header.put(fourCC("MJPG"));
+		header.putInt(width * height * 3);
+		header.putInt(0).putInt(0).putInt(0).putInt(0);
+
+		header.put(fourCC("LIST")).putInt((int)moviSize).put(fourCC("movi"));
+		header.flip();
+		return header;
+	}
+
+	private void writeIndexEntry(long offset, int length) {
+		ByteBuffer entry = ByteBuffer.allocate(16).order(ByteOrder.LITTLE_ENDIAN);
+		entry.put(fourCC("00dc")).putInt(AVIIF_KEYFRAME).putInt((int)offset).putInt(length);
+		index.write(entry.array(), 0, 16);
+	}
+
+	private int writeFully(ByteBuffer buffer) throws IOException {
+		int written = 0;
+		while (buffer.hasRemaining()) {
+			written += channel.write(buffer);
+		}
+		return written;
+	}
+
+	private static byte[] fourCC(String code) {
+		return code.getBytes(StandardCharsets.US_ASCII);
+	}
+}
@@ -0,0 +1,27 @@
+package codedraw;
+
+/**
+ * Backpressure defines what a {@link Recorder} does when frames are recorded faster than they can be encoded.
+ * Recorded frames wait in a queue until an encoder thread is free.
+ * The backpressure decides what happens once that queue is full.
+ */
+public enum Backpressure {
+	/**
+	 * Recording a frame waits until there is space in the queue again.
+	 * No frame is lost, but the animation slows down to the speed of the encoder.
+	 * This is the default.
+	 */
+	BLOCK,
+	/**
+	 * The frame is dropped and recording returns immediately.
+	 * The animation keeps its speed, but the recording skips frames.
+	 * Videos repeat the previous frame in place of a dropped frame, so that the timing stays correct.
+	 */
+	DROP,
+	/**
+	 * The queue grows beyond its capacity.
+	 * No frame is lost and the animation keeps its speed,
+	 * but memory usage grows for as long as the encoder cannot keep up.
+	 */
+	GROW
+}
@@ -1,38 +1,158 @@
-
 package codedraw;
 
 import javax.swing.*;
 import java.awt.*;
-import java.awt.datatransfer.Clipboard;
+import java.lang.reflect.InvocationTargetException;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Consumer;
 
 class CanvasPanel extends JPanel implements AutoCloseable {
 	public CanvasPanel(int width, int height) {
-		buffer = Image.fromDPIAwareSize(width, height);
+		this.width = width;
+		this.height = height;
+		swapChain = createSwapChain(PresentationMode.SINGLE_BUFFERED);
 
 		setLayout(null);
 		setPreferredSize(new Dimension(Math.max(width, 150), height));
 	}
 
-	private final Image buffer;
+	private final int width;
+	private final int height;
+
+	private PresentationMode presentationMode = PresentationMode.SINGLE_BUFFERED;
+	private volatile SwapChain swapChain;
+	private volatile Interpolation interpolation = Interpolation.BICUBIC;
+	private volatile boolean isPerformanceOverlay = false;
+	private volatile AcceleratedCanvas acceleratedCanvas = null;
+	private Image lastShownImage = null;
+
+	private final FrameStats frameStats = new FrameStats();
+	private final Consumer<Graphics> framePainter = this::paintFrame;
+	private long lastShowTime = 0;
+	private volatile long repaintRequestTime = 0;
 
-	private final Semaphore copyToClipboardLock = new Semaphore(1);
-	private final Semaphore renderLock = new Semaphore(1);
 	private final CloseableSemaphore waitForDisplay = new CloseableSemaphore(1);
 
+	public Interpolation getInterpolation() {
+		return interpolation;
+	}
+
+	public void setInterpolation(Interpolation interpolation) {
+		this.interpolation = interpolation;
+	}
+
+	public FrameStats getFrameStats() {
+		return frameStats;
+	}
+
+	public boolean isPerformanceOverlay() {
+		return isPerformanceOverlay;
+	}
+
+	public void setPerformanceOverlay(boolean isPerformanceOverlay) {
+		this.isPerformanceOverlay = isPerformanceOverlay;
+		repaint();
+	}
+
+	public PresentationMode getPresentationMode() {
+		return presentationMode;
+	}
+
+	public void setPresentationMode(PresentationMode presentationMode) {
+		if (this.presentationMode != presentationMode) {
+			this.presentationMode = presentationMode;
+
+			// the component tree must only be changed on the event dispatch thread
+			AcceleratedCanvas oldCanvas = acceleratedCanvas;
+			AtomicReference<AcceleratedCanvas> newCanvas = new AtomicReference<>();
+			runOnEventDispatchThread(() -> {
+				if (oldCanvas != null) {
+					oldCanvas.dispose();
+				}
+				if (presentationMode == PresentationMode.ACCELERATED) {
+					newCanvas.set(AcceleratedCanvas.tryCreate(this, width, height));
+				}
+			});
+			acceleratedCanvas = newCanvas.get();
+
+			swapChain = createSwapChain(presentationMode);
+			// the new buffers are empty, therefore the next show must copy the whole canvas
+			lastShownImage = null;
+		}
+	}
+
+	private SwapChain createSwapChain(PresentationMode presentationMode) {
+		switch (presentationMode) {
+			case SINGLE_BUFFERED: return new SwapChain(1, width, height);
+			case DOUBLE_BUFFERED: return new SwapChain(2, width, height);
+			case TRIPLE_BUFFERED: return new SwapChain(3, width, height);
+			// the accelerated canvas is rendered to from the thread calling show, a single buffer is enough
+			case ACCELERATED: return new SwapChain(acceleratedCanvas != null ? 1 : 2, width, height);
+			default: throw new RuntimeException("Unknown presentation mode.");
+		}
+	}
+
 	public void show(Image image) {
+		Object profilerHandle = Profiler.PROFILER.beginShow();
+		long showTime = System.nanoTime();
+		if (lastShowTime != 0) {
+			frameStats.record(FramePhase.FRAME, showTime - lastShowTime);
+		}
+		lastShowTime = showTime;
+
 		waitForDisplay.acquire();
-		waitForDisplay.emptySemaphore();
 
-		copyToClipboardLock.acquire();
-		renderLock.acquire();
+		Rectangle region = image.takeDirtyRegion();
+		if (image != lastShownImage) {
+			lastShownImage = image;
+			region = new Rectangle(0, 0, image.getWidth() * image.getXScale(), image.getHeight() * image.getYScale());
+		}
 
-		buffer.clear();
-		buffer.drawImage(0, 0, image);
+		if (region == null) {
+			// nothing changed, there is nothing to repaint and therefore nothing to wait for
+			waitForDisplay.release();
+			Profiler.PROFILER.endShow(profilerHandle, 0, 0);
+			return;
+		}
 
-		renderLock.release();
-		copyToClipboardLock.release();
+		waitForDisplay.emptySemaphore();
 
-		repaint(10);
+		long waitStart = System.nanoTime();
+		int backBuffer = swapChain.acquireBackBuffer();
+		long copyStart = System.nanoTime();
+		frameStats.record(FramePhase.WAIT_FOR_DISPLAY, copyStart - waitStart);
+
+		swapChain.present(backBuffer, image, region);
+		long copyEnd = System.nanoTime();
+		frameStats.record(FramePhase.COPY, copyEnd - copyStart);
+		Profiler.PROFILER.endShow(profilerHandle, region.width, region.height);
+
+		AcceleratedCanvas canvas = acceleratedCanvas;
+		if (canvas != null) {
+			canvas.render(framePainter);
+			frameStats.record(FramePhase.PAINT, System.nanoTime() - copyEnd);
+			waitForDisplay.release();
+		}
+		else {
+			Rectangle canvasRegion = toCanvasRegion(region, image.getXScale(), image.getYScale());
+			if (isPerformanceOverlay) {
+				canvasRegion.add(PerformanceOverlay.BOUNDS);
+			}
+			repaintRequestTime = copyEnd;
+			repaint(10, canvasRegion);
+		}
+	}
+
+	private void repaint(long maxWaitMilliseconds, Rectangle canvasRegion) {
+		repaint(maxWaitMilliseconds, canvasRegion.x, canvasRegion.y, canvasRegion.width, canvasRegion.height);
+	}
+
+	private static Rectangle toCanvasRegion(Rectangle rasterRegion, int xScale, int yScale) {
+		int minX = rasterRegion.x / xScale;
+		int minY = rasterRegion.y / yScale;
+		int maxX = (rasterRegion.x + rasterRegion.width + xScale - 1) / xScale;
+		int maxY = (rasterRegion.y + rasterRegion.height + yScale - 1) / yScale;
+		return new Rectangle(minX, minY, maxX - minX, maxY - minY);
 	}
 
 	public void waitForDisplay() {
@@ -41,25 +161,72 @@ class CanvasPanel extends JPanel implements AutoCloseable {
 	}
 
 	public void copyCanvasToClipboard() {
-		copyToClipboardLock.acquire();
-		Clipboard clipboard = Toolkit.getDefaultToolkit().getSystemClipboard();
-		clipboard.setContents(new TransferableImage(buffer), null);
-		copyToClipboardLock.release();
+		swapChain.copyToClipboard();
 	}
 
 	@Override
 	public void close() {
 		waitForDisplay.close();
+
+		AcceleratedCanvas canvas = acceleratedCanvas;
+		if (canvas != null) {
+			acceleratedCanvas = null;
+			// close can be called while the event dispatch thread waits for the close lock, waiting for it here could deadlock
+			if (SwingUtilities.isEventDispatchThread()) {
+				canvas.dispose();
+			}
+			else {
+				SwingUtilities.invokeLater(canvas::dispose);
+			}
+		}
+	}
+
+	private static void runOnEventDispatchThread(Runnable task) {
+		if (SwingUtilities.isEventDispatchThread()) {
+			task.run();
+			return;
+		}
+
+		try {
+			SwingUtilities.invokeAndWait(task);
+		}
+		catch (InterruptedException e) {
+			throw new RuntimeException(e);
+		}
+		catch (InvocationTargetException e) {
+			Throwable cause = e.getCause();
+			if (cause instanceof RuntimeException) throw (RuntimeException)cause;
+			if (cause instanceof Error) throw (Error)cause;
+			throw new RuntimeException(cause);
+		}
 	}
 
 	@Override
 	protected void paintComponent(Graphics componentGraphics) {
 		super.paintComponent(componentGraphics);
 
-		renderLock.acquire();
-		buffer.copyTo(componentGraphics, Interpolation.BICUBIC);
-		renderLock.release();
+		long paintStart = System.nanoTime();
+		long requestTime = repaintRequestTime;
+		if (requestTime != 0) {
+			repaintRequestTime = 0;
+			frameStats.record(FramePhase.PAINT_LATENCY, paintStart - requestTime);
+		}
+
+		paintFrame(componentGraphics);
+		frameStats.record(FramePhase.PAINT, System.nanoTime() - paintStart);
 
 		waitForDisplay.release();
 	}
-}
\ No newline at end of file
+
+	private void paintFrame(Graphics graphics) {
+		Object profilerHandle = Profiler.PROFILER.beginPaint();
+
+		swapChain.paint(graphics, interpolation);
+
+		if (isPerformanceOverlay) {
+			PerformanceOverlay.paint(graphics, frameStats);
+		}
+
+		Profiler.PROFILER.endPaint(profilerHandle);
+	}
+}
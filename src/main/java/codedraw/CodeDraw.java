@@ -106,14 +106,31 @@ public class CodeDraw extends Image implements AutoCloseable {
 	 * @param simulationsPerSecond the rate at which the {@link Animation#simulate()} method should be called.
 	 */
 	public static void run(Animation animation, int width, int height, int framesPerSecond, int simulationsPerSecond) {
+		run(animation, width, height, framesPerSecond, simulationsPerSecond, new AnimationOptions());
+	}
+
+	/**
+	 * Runs the {@link Animation} interface using a CodeDraw window.
+	 * This function returns when the CodeDraw window is closed by the user.
+	 * The animation will appear with a size of 600 by 600 pixel
+	 * running at 60 frames per second and 60 simulation per second.
+	 * @param animation any class implementing the animation interface.
+	 * @param width the width of the CodeDraw window.
+	 * @param height the height of the CodeDraw window.
+	 * @param framesPerSecond the rate at which the {@link Animation#draw(Image)} method should be called.
+	 * @param simulationsPerSecond the rate at which the {@link Animation#simulate()} method should be called.
+	 * @param options additional options such as adaptive quality, see {@link AnimationOptions}.
+	 */
+	public static void run(Animation animation, int width, int height, int framesPerSecond, int simulationsPerSecond, AnimationOptions options) {
 		if (animation == null) throw createParameterNullException("animation");
 		if (width < 1) throw createParameterMustBeGreaterThanZeroException("width");
 		if (height < 1) throw createParameterMustBeGreaterThanZeroException("height");
 		if (framesPerSecond < 1) throw createParameterMustBeGreaterThanZeroException("framesPerSecond");
 		if (simulationsPerSecond < 1) throw createParameterMustBeGreaterThanZeroException("simulationsPerSecond");
+		if (options == null) throw createParameterNullException("options");
 
 		CodeDraw cd = new CodeDraw(width, height);
-		CodeDrawGUI.run(animation, cd.gui, cd, framesPerSecond, simulationsPerSecond);
+		CodeDrawGUI.run(animation, cd.gui, cd, framesPerSecond, simulationsPerSecond, options);
 		cd.close(false);
 	}
 
@@ -148,6 +165,17 @@ public class CodeDraw extends Image implements AutoCloseable {
 		return gui.getEventScanner();
 	}
 
+	/**
+	 * Gets the InputState of this CodeDraw window.
+	 * Unlike the EventScanner the InputState does not need to be consumed,
+	 * it always contains the keys and mouse buttons that are currently held down and the current mouse position.
+	 * See the {@link InputState} for more details on how to use it.
+	 * @return an InputState.
+	 */
+	public InputState getInputState() {
+		return gui.getInputState();
+	}
+
 	/**
 	 * When InstantDraw is enabled CodeDraw will immediately draw all shapes to the canvas without calling {@link #show()}.
 	 * When InstantDraw is disabled CodeDraw will only draw shapes to the window once {@link #show()} is called.
@@ -301,6 +329,57 @@ public class CodeDraw extends Image implements AutoCloseable {
 		gui.setCursorStyle(cursorStyle);
 	}
 
+	/**
+	 * Defines how the canvas is handed over to the CodeDraw window when show is called.
+	 * See {@link PresentationMode} for the available modes.
+	 * The presentation mode is {@link PresentationMode#SINGLE_BUFFERED} per default.
+	 * @return the presentation mode of this CodeDraw window.
+	 */
+	public PresentationMode getPresentationMode() {
+		return gui.getPresentationMode();
+	}
+
+	/**
+	 * Defines how the canvas is handed over to the CodeDraw window when show is called.
+	 * See {@link PresentationMode} for the available modes.
+	 * The presentation mode is {@link PresentationMode#SINGLE_BUFFERED} per default.
+	 * @param presentationMode Sets the presentation mode of this CodeDraw window.
+	 */
+	public void setPresentationMode(PresentationMode presentationMode) {
+		if (presentationMode == null) throw createParameterNullException("presentationMode");
+
+		gui.setPresentationMode(presentationMode);
+	}
+
+	/**
+	 * Gets the frame timing statistics of this CodeDraw window.
+	 * The statistics show how long the recent frames took and where that time was spent.
+	 * See {@link FrameStats} for more details.
+	 * @return the frame statistics.
+	 */
+	public FrameStats getFrameStats() {
+		return gui.getFrameStats();
+	}
+
+	/**
+	 * Whether a frame time graph is displayed in the top left corner of this CodeDraw window.
+	 * The performance overlay is disabled by default.
+	 * @return whether the performance overlay is displayed.
+	 */
+	public boolean isPerformanceOverlay() {
+		return gui.isPerformanceOverlay();
+	}
+
+	/**
+	 * Displays a graph of the recent frame times in the top left corner of this CodeDraw window
+	 * together with the 50th, 95th and 99th percentile and the number of dropped frames.
+	 * The overlay is only displayed and never drawn onto the canvas.
+	 * @param isPerformanceOverlay whether the performance overlay is displayed.
+	 */
+	public void setPerformanceOverlay(boolean isPerformanceOverlay) {
+		gui.setPerformanceOverlay(isPerformanceOverlay);
+	}
+
 	/**
 	 * Displays all the shapes and images that were drawn onto the canvas.
 	 * Since showing the drawn elements in the CodeDraw window is slow,
@@ -3,6 +3,10 @@ package codedraw;
 import javax.swing.*;
 import java.awt.*;
 import java.awt.image.BufferedImage;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.BooleanSupplier;
+import java.util.function.Consumer;
 
 class CodeDrawGUI implements AutoCloseable {
 	private static final Semaphore guiCountLock = new Semaphore(1);
@@ -84,7 +88,7 @@ class CodeDrawGUI implements AutoCloseable {
 	private Screen screen = null;
 
 	private boolean isInstantDraw = false;
-	private boolean isClosed = false;
+	private volatile boolean isClosed = false;
 
 	public Screen getScreen() {
 		checkIsClosed();
@@ -105,6 +109,11 @@ class CodeDrawGUI implements AutoCloseable {
 		return eventHandler.getEventScanner();
 	}
 
+	public InputState getInputState() {
+		checkIsClosed();
+		return eventHandler.getInputState();
+	}
+
 	public boolean isInstantDraw() {
 		checkIsClosed();
 		return isInstantDraw;
@@ -166,17 +175,43 @@ class CodeDrawGUI implements AutoCloseable {
 		frame.setCursor(cursorStyle.getCursor());
 	}
 
+	public FrameStats getFrameStats() {
+		checkIsClosed();
+		return panel.getFrameStats();
+	}
+
+	public boolean isPerformanceOverlay() {
+		checkIsClosed();
+		return panel.isPerformanceOverlay();
+	}
+
+	public void setPerformanceOverlay(boolean isPerformanceOverlay) {
+		checkIsClosed();
+		panel.setPerformanceOverlay(isPerformanceOverlay);
+	}
+
+	public void setDisplayInterpolation(Interpolation interpolation) {
+		panel.setInterpolation(interpolation);
+	}
+
+	public PresentationMode getPresentationMode() {
+		checkIsClosed();
+		return panel.getPresentationMode();
+	}
+
+	public void setPresentationMode(PresentationMode presentationMode) {
+		checkIsClosed();
+		panel.setPresentationMode(presentationMode);
+	}
+
 	public void show(Image image, long waitMilliseconds) {
 		checkIsClosed();
 
-		long start = System.currentTimeMillis();
+		long start = System.nanoTime();
 
 		show(image);
 
-		long executionTime = System.currentTimeMillis() - start;
-		long remainingMilliseconds = waitMilliseconds - executionTime;
-
-		sleepIfPositive(remainingMilliseconds);
+		PreciseSleep.until(start + waitMilliseconds * 1_000_000);
 	}
 
 	public void show(Image image) {
@@ -220,85 +255,150 @@ class CodeDrawGUI implements AutoCloseable {
 		close(false);
 	}
 
-	public static void run(Animation animation, CodeDrawGUI gui, Image image, int framesPerSecond, int simulationsPerSecond) {
+	public static void run(Animation animation, CodeDrawGUI gui, Image image, int framesPerSecond, int simulationsPerSecond, AnimationOptions options) {
+		QualityGovernor governor = options.isAdaptiveQuality() ? new QualityGovernor(gui::setDisplayInterpolation, framesPerSecond) : null;
+		FrameStats stats = gui.getFrameStats();
+		options.setFrameStats(stats);
+		gui.setPresentationMode(options.getPresentationMode());
+		gui.setPerformanceOverlay(options.isPerformanceOverlay());
+
+		if (animation instanceof SnapshotAnimation) {
+			runDecoupled((SnapshotAnimation<?>)animation, gui.getEventScanner(), gui::isClosed, gui::show, image, framesPerSecond, simulationsPerSecond, stats, governor);
+			return;
+		}
+
 		EventScanner es = gui.getEventScanner();
-		Scheduler frames = new Scheduler(1000 / framesPerSecond, true);
-		Scheduler simulations = new Scheduler( 1000 / simulationsPerSecond, false);
+		EventDispatcher dispatcher = new EventDispatcher(animation);
+		Scheduler frames = new Scheduler(framesPerSecond, true);
+		Scheduler simulations = new Scheduler(simulationsPerSecond, false);
+		InterpolatedAnimation interpolated = animation instanceof InterpolatedAnimation ? (InterpolatedAnimation)animation : null;
 
 		while (!gui.isClosed()) {
 			while (simulations.shouldDoTask()) {
-				dispatchEvents(es, animation);
+				dispatcher.dispatchEvents(es);
 				animation.simulate();
 			}
 
 			if (frames.shouldDoTask()) {
-				animation.draw(image);
+				long frameStart = System.nanoTime();
+				if (interpolated != null) {
+					interpolated.draw(image, simulations.getProgressToNextTask());
+				}
+				else {
+					animation.draw(image);
+				}
+				long drawEnd = System.nanoTime();
 				gui.show(image);
+				recordFrame(stats, governor, frames, frameStart, drawEnd);
 			}
 
 			long sleepTime = Math.min(simulations.timeUntilNextTask(), frames.timeUntilNextTask());
-			sleepIfPositive(sleepTime);
+			PreciseSleep.until(System.nanoTime() + sleepTime);
 		}
 	}
 
-	private static void dispatchEvents(EventScanner es, Animation animation) {
-		while (es.hasEventNow()) {
-			Object event = es.nextEvent();
-
-			if (event instanceof MouseClickEvent) {
-				animation.onMouseClick((MouseClickEvent) event);
-			}
-			else if (event instanceof MouseMoveEvent) {
-				animation.onMouseMove((MouseMoveEvent) event);
-			}
-			else if (event instanceof MouseDownEvent) {
-				animation.onMouseDown((MouseDownEvent) event);
-			}
-			else if (event instanceof MouseUpEvent) {
-				animation.onMouseUp((MouseUpEvent) event);
-			}
-			else if (event instanceof MouseEnterEvent) {
-				animation.onMouseEnter((MouseEnterEvent) event);
-			}
-			else if (event instanceof MouseLeaveEvent) {
-				animation.onMouseLeave((MouseLeaveEvent) event);
-			}
-			else if (event instanceof MouseWheelEvent) {
-				animation.onMouseWheel((MouseWheelEvent) event);
-			}
-			else if (event instanceof KeyDownEvent) {
-				animation.onKeyDown((KeyDownEvent) event);
-			}
-			else if (event instanceof KeyUpEvent) {
-				animation.onKeyUp((KeyUpEvent) event);
+	/*
+		The simulation runs on its own thread at a fixed rate and publishes a snapshot after simulating.
+		The calling thread becomes the render thread and draws the latest snapshot.
+		However the render loop ends, the simulation thread is stopped and joined before returning.
+	*/
+	static <S> void runDecoupled(SnapshotAnimation<S> animation, EventScanner es, BooleanSupplier isClosed, Consumer<Image> show, Image image, int framesPerSecond, int simulationsPerSecond, FrameStats stats, QualityGovernor governor) {
+		EventDispatcher dispatcher = new EventDispatcher(animation);
+		AtomicReference<S> latestSnapshot = new AtomicReference<>();
+		AtomicReference<Throwable> simulationFailure = new AtomicReference<>();
+		AtomicBoolean stopSimulation = new AtomicBoolean(false);
+		BooleanSupplier shouldStopSimulation = () -> stopSimulation.get() || isClosed.getAsBoolean();
+
+		Thread simulationThread = new Thread(() -> {
+			try {
+				runSimulation(animation, shouldStopSimulation, es, dispatcher, simulationsPerSecond, latestSnapshot);
 			}
-			else if (event instanceof KeyPressEvent) {
-				animation.onKeyPress((KeyPressEvent) event);
+			catch (Throwable t) {
+				simulationFailure.set(t);
 			}
-			else if (event instanceof WindowMoveEvent) {
-				animation.onWindowMove((WindowMoveEvent) event);
+		}, "CodeDraw Simulation");
+		simulationThread.setDaemon(true);
+		simulationThread.start();
+
+		Scheduler frames = new Scheduler(framesPerSecond, true);
+		S drawnSnapshot = null;
+
+		try {
+			while (!isClosed.getAsBoolean() && simulationFailure.get() == null) {
+				if (frames.shouldDoTask()) {
+					S snapshot = latestSnapshot.get();
+					if (snapshot != null && snapshot != drawnSnapshot) {
+						long frameStart = System.nanoTime();
+						animation.draw(image, snapshot);
+						long drawEnd = System.nanoTime();
+						show.accept(image);
+						recordFrame(stats, governor, frames, frameStart, drawEnd);
+						drawnSnapshot = snapshot;
+					}
+				}
+
+				PreciseSleep.until(System.nanoTime() + frames.timeUntilNextTask());
 			}
-			else if (event instanceof WindowCloseEvent) {
-				animation.onWindowClose((WindowCloseEvent) event);
+		}
+		finally {
+			stopSimulation.set(true);
+			joinSimulation(simulationThread);
+		}
+
+		rethrow(simulationFailure.get());
+	}
+
+	private static <S> void runSimulation(SnapshotAnimation<S> animation, BooleanSupplier shouldStop, EventScanner es, EventDispatcher dispatcher, int simulationsPerSecond, AtomicReference<S> latestSnapshot) {
+		Scheduler simulations = new Scheduler(simulationsPerSecond, false);
+		latestSnapshot.set(animation.createSnapshot());
+
+		while (!shouldStop.getAsBoolean()) {
+			boolean hasSimulated = false;
+			while (simulations.shouldDoTask()) {
+				dispatcher.dispatchEvents(es);
+				animation.simulate();
+				hasSimulated = true;
 			}
-			else {
-				throw new RuntimeException("unhandled event occurred.");
+
+			if (hasSimulated) {
+				latestSnapshot.set(animation.createSnapshot());
 			}
+
+			PreciseSleep.until(System.nanoTime() + simulations.timeUntilNextTask());
 		}
 	}
 
-	private static void sleepIfPositive(long waitMilliseconds) {
-		if (waitMilliseconds <= 0) {
-			return;
+	private static void recordFrame(FrameStats stats, QualityGovernor governor, Scheduler frames, long frameStart, long drawEnd) {
+		stats.record(FramePhase.DRAW, drawEnd - frameStart);
+		stats.record(FramePhase.JITTER, frames.getLastJitterNanoseconds());
+		stats.setDroppedFrames(frames.getDroppedTasks());
+
+		if (governor != null) {
+			governor.update(stats);
 		}
+	}
 
+	private static void joinSimulation(Thread simulationThread) {
 		try {
-			Thread.sleep(waitMilliseconds);
-		} catch (InterruptedException e) {
+			simulationThread.join();
+		}
+		catch (InterruptedException e) {
 			throw new RuntimeException(e);
 		}
 	}
 
+	private static void rethrow(Throwable failure) {
+		if (failure instanceof RuntimeException) {
+			throw (RuntimeException)failure;
+		}
+		else if (failure instanceof Error) {
+			throw (Error)failure;
+		}
+		else if (failure != null) {
+			throw new RuntimeException(failure);
+		}
+	}
+
 	private void checkIsClosed() {
 		if (this.isClosed())
 			throw new RuntimeException(
@@ -0,0 +1,165 @@
+package codedraw;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+
+/*
+	The result of Animation.combine.
+	Every method is only forwarded to the animations that override it,
+	animations that only draw are never called for events.
+*/
+class CombinedAnimation implements Animation {
+	public CombinedAnimation(Animation[] animations) {
+		this.animations = animations.clone();
+
+		simulating = select("simulate");
+		mouseClick = select("onMouseClick", MouseClickEvent.class);
+		mouseMove = select("onMouseMove", MouseMoveEvent.class);
+		mouseDown = select("onMouseDown", MouseDownEvent.class);
+		mouseUp = select("onMouseUp", MouseUpEvent.class);
+		mouseEnter = select("onMouseEnter", MouseEnterEvent.class);
+		mouseLeave = select("onMouseLeave", MouseLeaveEvent.class);
+		mouseWheel = select("onMouseWheel", MouseWheelEvent.class);
+		keyDown = select("onKeyDown", KeyDownEvent.class);
+		keyUp = select("onKeyUp", KeyUpEvent.class);
+		keyPress = select("onKeyPress", KeyPressEvent.class);
+		windowMove = select("onWindowMove", WindowMoveEvent.class);
+		windowClose = select("onWindowClose", WindowCloseEvent.class);
+	}
+
+	private final Animation[] animations;
+	private final HashSet<String> overriddenMethods = new HashSet<>();
+
+	private final Animation[] simulating;
+	private final Animation[] mouseClick;
+	private final Animation[] mouseMove;
+	private final Animation[] mouseDown;
+	private final Animation[] mouseUp;
+	private final Animation[] mouseEnter;
+	private final Animation[] mouseLeave;
+	private final Animation[] mouseWheel;
+	private final Animation[] keyDown;
+	private final Animation[] keyUp;
+	private final Animation[] keyPress;
+	private final Animation[] windowMove;
+	private final Animation[] windowClose;
+
+	public boolean isOverridden(String methodName) {
+		return overriddenMethods.contains(methodName);
+	}
+
+	private Animation[] select(String methodName, Class<?>... parameterTypes) {
+		ArrayList<Animation> result = new ArrayList<>();
+
+		for (Animation a : animations) {
+			if (EventDispatcher.isOverridden(a, methodName, parameterTypes)) {
+				result.add(a);
+			}
+		}
+
+		if (!result.isEmpty()) {
+			overriddenMethods.add(methodName);
+		}
+
+		return result.toArray(new Animation[0]);
+	}
+
+	@Override
+	public void draw(Image canvas) {
+		for (Animation a : animations) {
+			canvas.resetProperties();
+			a.draw(canvas);
+		}
+	}
+
+	@Override
+	public void simulate() {
+		for (Animation a : simulating) {
+			a.simulate();
+		}
+	}
+
+	@Override
+	public void onMouseClick(MouseClickEvent event) {
+		for (Animation a : mouseClick) {
+			a.onMouseClick(event);
+		}
+	}
+
+	@Override
+	public void onMouseMove(MouseMoveEvent event) {
+		for (Animation a : mouseMove) {
+			a.onMouseMove(event);
+		}
+	}
+
+	@Override
+	public void onMouseDown(MouseDownEvent event) {
+		for (Animation a : mouseDown) {
+			a.onMouseDown(event);
+		}
+	}
+
+	@Override
+	public void onMouseUp(MouseUpEvent event) {
+		for (Animation a : mouseUp) {
+			a.onMouseUp(event);
+		}
+	}
+
+	@Override
+	public void onMouseEnter(MouseEnterEvent event) {
+		for (Animation a : mouseEnter) {
+			a.onMouseEnter(event);
+		}
+	}
+
+	@Override
+	public void onMouseLeave(MouseLeaveEvent event) {
+		for (Animation a : mouseLeave) {
+			a.onMouseLeave(event);
+		}
+	}
+
+	@Override
+	public void onMouseWheel(MouseWheelEvent event) {
+		for (Animation a : mouseWheel) {
+			a.onMouseWheel(event);
+		}
+	}
+
+	@Override
+	public void onKeyDown(KeyDownEvent event) {
+		for (Animation a : keyDown) {
+			a.onKeyDown(event);
+		}
+	}
+
+	@Override
+	public void onKeyUp(KeyUpEvent event) {
+		for (Animation a : keyUp) {
+			a.onKeyUp(event);
+		}
+	}
+
+	@Override
+	public void onKeyPress(KeyPressEvent event) {
+		for (Animation a : keyPress) {
+			a.onKeyPress(event);
+		}
+	}
+
+	@Override
+	public void onWindowMove(WindowMoveEvent event) {
+		for (Animation a : windowMove) {
+			a.onWindowMove(event);
+		}
+	}
+
+	@Override
+	public void onWindowClose(WindowCloseEvent event) {
+		for (Animation a : windowClose) {
+			a.onWindowClose(event);
+		}
+	}
+}
@@ -1,46 +1,141 @@
 package codedraw;
 
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.locks.LockSupport;
+
+/*
+	A queue for exactly one producer thread and any number of consumer threads.
+	For the EventScanner the producer is the event dispatch thread and the consumers are the threads reading the events.
+	Pushing is lock-free, so the event dispatch thread never waits for a consumer.
+	The consumers take a short lock for each peek, pop and isEmpty, which they only hold while no element has to be awaited.
+
+	Elements are stored in fixed size segments. When the producer fills its segment it links a new one,
+	the consumers follow the links and leave consumed segments to the garbage collector.
+	Writing an element into its slot publishes it to the consumers.
+	A consumer that waits for an element parks without holding the lock and is unparked by the next push.
+*/
 class ConcurrentQueue<T> {
-	public ConcurrentQueue(int initialCapacity) {
-		if (initialCapacity <= 0) throw new RuntimeException("Initial capacity must be larger than zero.");
+	public ConcurrentQueue(int segmentCapacity) {
+		if (segmentCapacity <= 0) throw new RuntimeException("Segment capacity must be larger than zero.");
 
-		queue = new Queue<>(initialCapacity);
+		this.segmentCapacity = segmentCapacity;
+		Segment<T> segment = new Segment<>(segmentCapacity);
+		tail = segment;
+		head = segment;
 	}
 
-	private final Queue<T> queue;
-	private final Semaphore queueLock = new Semaphore(1);
-	private final Semaphore queueCount = new Semaphore(0);
+	private final int segmentCapacity;
+
+	// only accessed by the producer
+	private Segment<T> tail;
+	private int tailIndex = 0;
+
+	// only accessed while holding the consumer lock
+	private Segment<T> head;
+	private int headIndex = 0;
+	private final Semaphore consumerLock = new Semaphore(1);
+
+	private final ConcurrentLinkedQueue<Thread> waitingConsumers = new ConcurrentLinkedQueue<>();
 
 	public void push(T element) {
-		queueLock.acquire();
-		queue.push(element);
-		queueLock.release();
+		if (element == null) throw new RuntimeException("Cannot push null onto the queue.");
+
+		if (tailIndex == segmentCapacity) {
+			Segment<T> segment = new Segment<>(segmentCapacity);
+			tail.next = segment;
+			tail = segment;
+			tailIndex = 0;
+		}
+
+		tail.elements.set(tailIndex++, element);
 
-		queueCount.release();
+		if (!waitingConsumers.isEmpty()) {
+			for (Thread consumer : waitingConsumers) {
+				LockSupport.unpark(consumer);
+			}
+		}
 	}
 
 	public boolean isEmpty() {
-		return !queueCount.canAcquire();
+		consumerLock.acquire();
+		try {
+			return peekNow() == null;
+		}
+		finally {
+			consumerLock.release();
+		}
 	}
 
 	public T pop() {
-		queueCount.acquire();
+		while (true) {
+			consumerLock.acquire();
+			try {
+				T result = peekNow();
+				if (result != null) {
+					// explicitly set removed elements to null, otherwise they could only be collected together with their segment
+					head.elements.lazySet(headIndex++, null);
+					return result;
+				}
+			}
+			finally {
+				consumerLock.release();
+			}
 
-		queueLock.acquire();
-		T result = queue.pop();
-		queueLock.release();
+			awaitElement();
+		}
+	}
+
+	public T peek() {
+		while (true) {
+			consumerLock.acquire();
+			try {
+				T result = peekNow();
+				if (result != null) return result;
+			}
+			finally {
+				consumerLock.release();
+			}
 
-		return result;
+			awaitElement();
+		}
 	}
 
-	public T peek(){
-		queueCount.acquire();
+	private T peekNow() {
+		if (headIndex == segmentCapacity) {
+			Segment<T> next = head.next;
+			if (next == null) return null;
+
+			head = next;
+			headIndex = 0;
+		}
+
+		return head.elements.get(headIndex);
+	}
+
+	// Returns once an element is available, another consumer might still take it before the caller gets the lock.
+	private void awaitElement() {
+		// The producer reads waitingConsumers after writing an element and the consumer checks for elements
+		// after adding itself to waitingConsumers. Both are volatile, therefore a push can never be missed.
+		Thread consumer = Thread.currentThread();
+		waitingConsumers.add(consumer);
+		try {
+			while (isEmpty()) {
+				LockSupport.park(this);
+				if (Thread.interrupted()) throw new RuntimeException(new InterruptedException());
+			}
+		}
+		finally {
+			waitingConsumers.remove(consumer);
+		}
+	}
 
-		queueLock.acquire();
-		T result = queue.peek();
-		queueLock.release();
+	private static class Segment<T> {
+		public Segment(int capacity) {
+			elements = new AtomicReferenceArray<>(capacity);
+		}
 
-		queueCount.release();
-		return result;
+		public final AtomicReferenceArray<T> elements;
+		public volatile Segment<T> next = null;
 	}
 }
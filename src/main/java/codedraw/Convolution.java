@@ -0,0 +1,254 @@
+package codedraw;
+
+/*
+	All filters work on premultiplied ARGB rasters, otherwise the color of fully transparent pixels,
+	which is invisible, would bleed into the neighbouring pixels.
+	Every filter writes into a separate target array and can therefore run in parallel row bands.
+*/
+class Convolution {
+	private Convolution() { }
+
+	public static void convolve(int[] source, int[] target, int width, int height, float[] kernel, int kernelWidth, int kernelHeight, int xStep, int yStep, EdgeMode edgeMode) {
+		int xRadius = kernelWidth / 2;
+		int yRadius = kernelHeight / 2;
+
+		RowBands.forEach(height, true, (startRow, endRow) -> {
+			for (int y = startRow; y < endRow; y++) {
+				for (int x = 0; x < width; x++) {
+					float a = 0, r = 0, g = 0, b = 0;
+
+					for (int ky = 0; ky < kernelHeight; ky++) {
+						int sy = edgeIndex(y + (ky - yRadius) * yStep, height, edgeMode);
+						if (sy < 0) continue;
+
+						for (int kx = 0; kx < kernelWidth; kx++) {
+							float weight = kernel[ky * kernelWidth + kx];
+							if (weight == 0) continue;
+							int sx = edgeIndex(x + (kx - xRadius) * xStep, width, edgeMode);
+							if (sx < 0) continue;
+
+							int argb = source[sy * width + sx];
+							a += weight * (argb >>> 24);
+							r += weight * ((argb >> 16) & 0xFF);
+							g += weight * ((argb >> 8) & 0xFF);
+							b += weight * (argb & 0xFF);
+						}
+					}
+
+					target[y * width + x] = pack(a, r, g, b);
+				}
+			}
+		});
+	}
+
+	public static void gaussianBlur(int[] source, int[] target, int width, int height, int xRadius, int yRadius, EdgeMode edgeMode) {
+		int[] temporary = new int[source.length];
+		convolve(source, temporary, width, height, gaussianKernel(xRadius), 2 * xRadius + 1, 1, 1, 1, edgeMode);
+		convolve(temporary, target, width, height, gaussianKernel(yRadius), 1, 2 * yRadius + 1, 1, 1, edgeMode);
+	}
+
+	private static float[] gaussianKernel(int radius) {
+		float[] kernel = new float[2 * radius + 1];
+		double sigma = Math.max(radius / 3.0, 0.5);
+		double sum = 0;
+
+		for (int i = -radius; i <= radius; i++) {
+			double weight = Math.exp(-(i * i) / (2 * sigma * sigma));
+			kernel[i + radius] = (float)weight;
+			sum += weight;
+		}
+
+		for (int i = 0; i < kernel.length; i++) {
+			kernel[i] /= sum;
+		}
+
+		return kernel;
+	}
+
+	public static void boxBlur(int[] source, int[] target, int width, int height, int xRadius, int yRadius, EdgeMode edgeMode) {
+		int[] temporary = new int[source.length];
+		boxBlurHorizontal(source, temporary, width, height, xRadius, edgeMode);
+		boxBlurVertical(temporary, target, width, height, yRadius, edgeMode);
+	}
+
+	// Keeps a running sum of the window around x, so each pixel costs the same independent of the radius.
+	private static void boxBlurHorizontal(int[] source, int[] target, int width, int height, int radius, EdgeMode edgeMode) {
+		int count = 2 * radius + 1;
+
+		RowBands.forEach(height, true, (startRow, endRow) -> {
+			for (int y = startRow; y < endRow; y++) {
+				int row = y * width;
+				int a = 0, r = 0, g = 0, b = 0;
+
+				for (int i = -radius; i <= radius; i++) {
+					int argb = sample(source, row, edgeIndex(i, width, edgeMode));
+					a += argb >>> 24;
+					r += (argb >> 16) & 0xFF;
+					g += (argb >> 8) & 0xFF;
+					b += argb & 0xFF;
+				}
+
+				for (int x = 0; x < width; x++) {
+					target[row + x] = average(a, r, g, b, count);
+
+					int removed = sample(source, row, edgeIndex(x - radius, width, edgeMode));
+					int added = sample(source, row, edgeIndex(x + radius + 1, width, edgeMode));
+					a += (added >>> 24) - (removed >>> 24);
+					r += ((added >> 16) & 0xFF) - ((removed >> 16) & 0xFF);
+					g += ((added >> 8) & 0xFF) - ((removed >> 8) & 0xFF);
+					b += (added & 0xFF) - (removed & 0xFF);
+				}
+			}
+		});
+	}
+
+	// Keeps one running sum per column and moves the whole row window down, which reads the raster row by row.
+	private static void boxBlurVertical(int[] source, int[] target, int width, int height, int radius, EdgeMode edgeMode) {
+		int count = 2 * radius + 1;
+
+		RowBands.forEach(height, true, (startRow, endRow) -> {
+			int[] sums = new int[4 * width];
+
+			for (int i = -radius; i <= radius; i++) {
+				addRow(source, sums, width, edgeIndex(startRow + i, height, edgeMode), 1);
+			}
+
+			for (int y = startRow; y < endRow; y++) {
+				int row = y * width;
+				for (int x = 0; x < width; x++) {
+					target[row + x] = average(sums[4 * x], sums[4 * x + 1], sums[4 * x + 2], sums[4 * x + 3], count);
+				}
+
+				addRow(source, sums, width, edgeIndex(y - radius, height, edgeMode), -1);
+				addRow(source, sums, width, edgeIndex(y + radius + 1, height, edgeMode), 1);
+			}
+		});
+	}
+
+	private static void addRow(int[] source, int[] sums, int width, int sourceRow, int sign) {
+		if (sourceRow < 0) return;
+
+		int row = sourceRow * width;
+		for (int x = 0; x < width; x++) {
+			int argb = source[row + x];
+			sums[4 * x] += sign * (argb >>> 24);
+			sums[4 * x + 1] += sign * ((argb >> 16) & 0xFF);
+			sums[4 * x + 2] += sign * ((argb >> 8) & 0xFF);
+			sums[4 * x + 3] += sign * (argb & 0xFF);
+		}
+	}
+
+	public static void sobel(int[] source, int[] target, int width, int height, int xStep, int yStep, EdgeMode edgeMode) {
+		RowBands.forEach(height, true, (startRow, endRow) -> {
+			for (int y = startRow; y < endRow; y++) {
+				int top = edgeIndex(y - yStep, height, edgeMode);
+				int bottom = edgeIndex(y + yStep, height, edgeMode);
+
+				for (int x = 0; x < width; x++) {
+					int left = edgeIndex(x - xStep, width, edgeMode);
+					int right = edgeIndex(x + xStep, width, edgeMode);
+
+					int topLeft = sample(source, top, left, width);
+					int topCenter = sample(source, top, x, width);
+					int topRight = sample(source, top, right, width);
+					int centerLeft = sample(source, y, left, width);
+					int centerRight = sample(source, y, right, width);
+					int bottomLeft = sample(source, bottom, left, width);
+					int bottomCenter = sample(source, bottom, x, width);
+					int bottomRight = sample(source, bottom, right, width);
+
+					int result = source[y * width + x] & 0xFF000000;
+					for (int shift = 0; shift <= 16; shift += 8) {
+						int gx = channel(topRight, shift) + 2 * channel(centerRight, shift) + channel(bottomRight, shift)
+							- channel(topLeft, shift) - 2 * channel(centerLeft, shift) - channel(bottomLeft, shift);
+						int gy = channel(bottomLeft, shift) + 2 * channel(bottomCenter, shift) + channel(bottomRight, shift)
+							- channel(topLeft, shift) - 2 * channel(topCenter, shift) - channel(topRight, shift);
+						int magnitude = Math.min((int)Math.sqrt(gx * gx + gy * gy), result >>> 24);
+						result |= magnitude << shift;
+					}
+
+					target[y * width + x] = result;
+				}
+			}
+		});
+	}
+
+	public static int[] premultiply(int[] argb) {
+		int[] result = new int[argb.length];
+
+		for (int i = 0; i < argb.length; i++) {
+			int color = argb[i];
+			int a = color >>> 24;
+
+			if (a == 0xFF) {
+				result[i] = color;
+			}
+			else if (a != 0) {
+				int r = (((color >> 16) & 0xFF) * a + 127) / 255;
+				int g = (((color >> 8) & 0xFF) * a + 127) / 255;
+				int b = ((color & 0xFF) * a + 127) / 255;
+				result[i] = a << 24 | r << 16 | g << 8 | b;
+			}
+		}
+
+		return result;
+	}
+
+	public static void unpremultiply(int[] argb) {
+		for (int i = 0; i < argb.length; i++) {
+			int color = argb[i];
+			int a = color >>> 24;
+
+			if (a == 0) {
+				argb[i] = 0;
+			}
+			else if (a != 0xFF) {
+				int r = Math.min(0xFF, (((color >> 16) & 0xFF) * 255 + a / 2) / a);
+				int g = Math.min(0xFF, (((color >> 8) & 0xFF) * 255 + a / 2) / a);
+				int b = Math.min(0xFF, ((color & 0xFF) * 255 + a / 2) / a);
+				argb[i] = a << 24 | r << 16 | g << 8 | b;
+			}
+		}
+	}
+
+	// Maps an index outside the raster to an index inside the raster. Returns -1 for transparent pixels.
+	private static int edgeIndex(int index, int length, EdgeMode edgeMode) {
+		if (0 <= index && index < length) return index;
+
+		switch (edgeMode) {
+			case CLAMP: return index < 0 ? 0 : length - 1;
+			case WRAP: return Math.floorMod(index, length);
+			case MIRROR:
+				int period = Math.floorMod(index, 2 * length);
+				return period < length ? period : 2 * length - period - 1;
+			case TRANSPARENT: return -1;
+			default: throw new RuntimeException("Unknown edge mode.");
+		}
+	}
+
+	private static int sample(int[] source, int row, int column) {
+		return column < 0 ? 0 : source[row + column];
+	}
+
+	private static int sample(int[] source, int y, int x, int width) {
+		return x < 0 || y < 0 ? 0 : source[y * width + x];
+	}
+
+	private static int channel(int argb, int shift) {
+		return (argb >> shift) & 0xFF;
+	}
+
+	private static int average(int a, int r, int g, int b, int count) {
+		int half = count / 2;
+		return (a + half) / count << 24 | (r + half) / count << 16 | (g + half) / count << 8 | (b + half) / count;
+	}
+
+	private static int pack(float a, float r, float g, float b) {
+		int alpha = clamp(a, 0xFF);
+		return alpha << 24 | clamp(r, alpha) << 16 | clamp(g, alpha) << 8 | clamp(b, alpha);
+	}
+
+	private static int clamp(float value, int max) {
+		return Math.max(0, Math.min(max, (int)(value + 0.5f)));
+	}
+}
@@ -0,0 +1,27 @@
+package codedraw;
+
+/**
+ * EdgeMode defines which colors image filters such as {@link Image#gaussianBlur(Image, double, EdgeMode)}
+ * use for the pixels outside the border of an image.
+ */
+public enum EdgeMode {
+	/**
+	 * The pixels outside the image have the color of the closest pixel on the border of the image.
+	 * Works well for most images.
+	 */
+	CLAMP,
+	/**
+	 * The image is repeated outside its borders, like a tile.
+	 * Pixels on the left border are blended with pixels on the right border and vice versa.
+	 */
+	WRAP,
+	/**
+	 * The image is mirrored along its borders.
+	 */
+	MIRROR,
+	/**
+	 * The pixels outside the image are transparent.
+	 * Blurred images will fade out towards the border.
+	 */
+	TRANSPARENT
+}
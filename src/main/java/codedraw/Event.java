@@ -8,13 +8,33 @@ import java.time.OffsetDateTime;
 public abstract class Event {
 	Event() { }
 
-	private final OffsetDateTime timeCreated = OffsetDateTime.now();
+	private final long timestampNanos = System.nanoTime();
+	private volatile OffsetDateTime timeCreated = null;
+
+	/**
+	 * Gets the point in time when this event was created as a value of {@link System#nanoTime()}.
+	 * Timestamps are monotonic and can only be compared to each other or to other values of {@link System#nanoTime()}.
+	 * This makes them well suited to measure the time between two events or the age of an event.
+	 * <pre>{@code
+	 * long latencyNanos = System.nanoTime() - event.getTimestampNanos();
+	 * }</pre>
+	 * @return the time this event was created in nanoseconds.
+	 */
+	public long getTimestampNanos() {
+		return timestampNanos;
+	}
 
 	/**
 	 * Gets the point in time when this event was created.
+	 * The wall clock time is derived from {@link #getTimestampNanos()} the first time this method is called.
 	 * @return the time this event was created.
 	 */
 	public OffsetDateTime getTimeCreated() {
-		return timeCreated;
+		OffsetDateTime result = timeCreated;
+		if (result == null) {
+			result = OffsetDateTime.now().minusNanos(System.nanoTime() - timestampNanos);
+			timeCreated = result;
+		}
+		return result;
 	}
 }
@@ -0,0 +1,61 @@
+package codedraw;
+
+import java.util.HashMap;
+import java.util.function.Consumer;
+
+/*
+	Calls the event methods of an Animation.
+	When the dispatcher is created it looks up which event methods the animation overrides
+	and only those end up in the handler table. Events without a handler are consumed and skipped
+	without calling the empty default methods of the Animation interface.
+*/
+class EventDispatcher {
+	public EventDispatcher(Animation animation) {
+		register(animation, MouseClickEvent.class, "onMouseClick", animation::onMouseClick);
+		register(animation, MouseMoveEvent.class, "onMouseMove", animation::onMouseMove);
+		register(animation, MouseDownEvent.class, "onMouseDown", animation::onMouseDown);
+		register(animation, MouseUpEvent.class, "onMouseUp", animation::onMouseUp);
+		register(animation, MouseEnterEvent.class, "onMouseEnter", animation::onMouseEnter);
+		register(animation, MouseLeaveEvent.class, "onMouseLeave", animation::onMouseLeave);
+		register(animation, MouseWheelEvent.class, "onMouseWheel", animation::onMouseWheel);
+		register(animation, KeyDownEvent.class, "onKeyDown", animation::onKeyDown);
+		register(animation, KeyUpEvent.class, "onKeyUp", animation::onKeyUp);
+		register(animation, KeyPressEvent.class, "onKeyPress", animation::onKeyPress);
+		register(animation, WindowMoveEvent.class, "onWindowMove", animation::onWindowMove);
+		register(animation, WindowCloseEvent.class, "onWindowClose", animation::onWindowClose);
+	}
+
+	private final HashMap<Class<? extends Event>, Consumer<Event>> handlers = new HashMap<>();
+
+	public void dispatchEvents(EventScanner es) {
+		while (es.hasEventNow()) {
+			dispatch(es.nextEvent());
+		}
+	}
+
+	public void dispatch(Event event) {
+		Consumer<Event> handler = handlers.get(event.getClass());
+		if (handler != null) {
+			handler.accept(event);
+		}
+	}
+
+	private <T extends Event> void register(Animation animation, Class<T> eventType, String methodName, Consumer<T> handler) {
+		if (isOverridden(animation, methodName, eventType)) {
+			handlers.put(eventType, event -> handler.accept(eventType.cast(event)));
+		}
+	}
+
+	static boolean isOverridden(Animation animation, String methodName, Class<?>... parameterTypes) {
+		if (animation instanceof CombinedAnimation) {
+			return ((CombinedAnimation)animation).isOverridden(methodName);
+		}
+
+		try {
+			return animation.getClass().getMethod(methodName, parameterTypes).getDeclaringClass() != Animation.class;
+		}
+		catch (NoSuchMethodException e) {
+			throw new RuntimeException(e);
+		}
+	}
+}
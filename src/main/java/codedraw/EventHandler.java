@@ -10,6 +10,7 @@ class EventHandler implements AutoCloseable {
 		this.panel = panel;
 		this.position = new PositionExtension(frame, panel);
 		eventScanner = new EventScanner();
+		inputState = new InputState();
 
 		this.closeCodeDrawGUI = closeCodeDrawGUI;
 
@@ -21,6 +22,7 @@ class EventHandler implements AutoCloseable {
 	private final CanvasPanel panel;
 	private final PositionExtension position;
 	private final EventScanner eventScanner;
+	private final InputState inputState;
 
 	private final Runnable closeCodeDrawGUI;
 
@@ -51,6 +53,10 @@ class EventHandler implements AutoCloseable {
 		return eventScanner;
 	}
 
+	public InputState getInputState() {
+		return inputState;
+	}
+
 	private void createEvents() {
 		MouseClickMap clickMap = new MouseClickMap(eventScanner);
 
@@ -85,22 +91,26 @@ class EventHandler implements AutoCloseable {
 			@Override
 			public void mousePressed(MouseEvent e) {
 				clickMap.mousePressed(e);
+				inputState.mouseDown(e);
 				eventScanner.push(new MouseDownEvent(e));
 			}
 
 			@Override
 			public void mouseReleased(MouseEvent e) {
 				clickMap.mouseReleased(e);
+				inputState.mouseUp(e);
 				eventScanner.push(new MouseUpEvent(e));
 			}
 
 			@Override
 			public void mouseEntered(MouseEvent e) {
+				inputState.mouseMoved(e);
 				eventScanner.push(new MouseEnterEvent(e));
 			}
 
 			@Override
 			public void mouseExited(MouseEvent e) {
+				inputState.mouseMoved(e);
 				eventScanner.push(new MouseLeaveEvent(e));
 			}
 		};
@@ -111,12 +121,14 @@ class EventHandler implements AutoCloseable {
 			@Override
 			public void mouseDragged(MouseEvent e) {
 				clickMap.mouseMoved(e);
+				inputState.mouseMoved(e);
 				eventScanner.push(new MouseMoveEvent(e));
 			}
 
 			@Override
 			public void mouseMoved(MouseEvent e) {
 				clickMap.mouseMoved(e);
+				inputState.mouseMoved(e);
 				eventScanner.push(new MouseMoveEvent(e));
 			}
 		};
@@ -132,12 +144,14 @@ class EventHandler implements AutoCloseable {
 
 			@Override
 			public void keyPressed(KeyEvent e) {
+				inputState.keyDown(e);
 				keyDownMap.keyPress(e);
 				eventScanner.push(new KeyPressEvent(e));
 			}
 
 			@Override
 			public void keyReleased(KeyEvent e) {
+				inputState.keyUp(e);
 				keyDownMap.keyRelease(e);
 				eventScanner.push(new KeyUpEvent(e));
 			}
@@ -156,6 +170,11 @@ class EventHandler implements AutoCloseable {
 
 	private WindowListener createWindowListener() {
 		return new WindowAdapter() {
+			@Override
+			public void windowDeactivated(WindowEvent e) {
+				inputState.releaseAll();
+			}
+
 			@Override
 			public void windowClosed(WindowEvent e) {
 				eventScanner.push(new WindowCloseEvent());
@@ -1,7 +1,6 @@
 package codedraw;
 
 import java.time.Duration;
-import java.time.OffsetDateTime;
 import java.util.ArrayList;
 import java.util.InputMismatchException;
 import java.util.Iterator;
@@ -92,17 +91,23 @@ import java.util.NoSuchElementException;
  *     <li>When consuming more than two events ifs are used instead of elseif.</li>
  *     <li>The last else branch is forgotten and the remaining events are not discarded.</li>
  * </ul>
+ * Fast mice produce a lot of mouse move events, see {@link #setMouseMoveCoalescing(boolean)} and
+ * {@link #setMouseWheelCoalescing(boolean)} to merge consecutive events into one.
+ * <br><br>
  * When a CodeDraw window is closed all remaining events can still be consumed from the EventScanner
  * but no new events will appear.
  */
 public class EventScanner implements Iterable<Event> {
 	EventScanner() {
-		this.queue = new ConcurrentQueue<>(128);
+		this.queue = new ConcurrentQueue<>(1024);
 	}
 
 	private final ConcurrentQueue<Event> queue;
+	private volatile boolean isMouseMoveCoalescing = false;
+	private volatile boolean isMouseWheelCoalescing = false;
 
 	void push(Event event) {
+		Profiler.PROFILER.eventPushed(event);
 		queue.push(event);
 	}
 
@@ -382,11 +387,56 @@ public class EventScanner implements Iterable<Event> {
 	 * @param duration any duration.
 	 */
 	public void removeEventsOlderThan(Duration duration) {
-		while (hasNow() && peek().getTimeCreated().isBefore(OffsetDateTime.now().minus(duration))) {
+		long maximumAgeNanos = toNanosSaturated(duration);
+		long now = System.nanoTime();
+
+		while (hasNow() && now - peek().getTimestampNanos() > maximumAgeNanos) {
 			queue.pop();
 		}
 	}
 
+	/**
+	 * Whether consecutive mouse move events are merged into a single event.
+	 * Mouse move coalescing is disabled by default.
+	 * @return whether mouse move coalescing is enabled.
+	 */
+	public boolean isMouseMoveCoalescing() {
+		return isMouseMoveCoalescing;
+	}
+
+	/**
+	 * A high polling rate mouse can produce a mouse move event every millisecond.
+	 * When mouse move coalescing is enabled, all mouse move events that are currently available and directly follow each other
+	 * are merged into a single event when the first of them is consumed.
+	 * The merged event has the position of the latest mouse move event
+	 * and {@link MouseMoveEvent#getCoalescedEvents()} contains the path of the mouse.
+	 * Other events are never merged and the order of the events is preserved.
+	 * @param isMouseMoveCoalescing whether mouse move coalescing is enabled.
+	 */
+	public void setMouseMoveCoalescing(boolean isMouseMoveCoalescing) {
+		this.isMouseMoveCoalescing = isMouseMoveCoalescing;
+	}
+
+	/**
+	 * Whether consecutive mouse wheel events are merged into a single event.
+	 * Mouse wheel coalescing is disabled by default.
+	 * @return whether mouse wheel coalescing is enabled.
+	 */
+	public boolean isMouseWheelCoalescing() {
+		return isMouseWheelCoalescing;
+	}
+
+	/**
+	 * When mouse wheel coalescing is enabled, all mouse wheel events that are currently available and directly follow each other
+	 * are merged into a single event when the first of them is consumed.
+	 * {@link MouseWheelEvent#getWheelRotation()} of the merged event returns the sum of all merged rotations.
+	 * Other events are never merged and the order of the events is preserved.
+	 * @param isMouseWheelCoalescing whether mouse wheel coalescing is enabled.
+	 */
+	public void setMouseWheelCoalescing(boolean isMouseWheelCoalescing) {
+		this.isMouseWheelCoalescing = isMouseWheelCoalescing;
+	}
+
 	/**
 	 * Creates an iterator containing all the currently available events.
 	 * By calling this method all events in the EventScanner are consumed
@@ -404,6 +454,15 @@ public class EventScanner implements Iterable<Event> {
 		return result.iterator();
 	}
 
+	private static long toNanosSaturated(Duration duration) {
+		try {
+			return duration.toNanos();
+		}
+		catch (ArithmeticException e) {
+			return duration.isNegative() ? Long.MIN_VALUE : Long.MAX_VALUE;
+		}
+	}
+
 	private boolean hasNow() {
 		return !queue.isEmpty();
 	}
@@ -446,6 +505,43 @@ public class EventScanner implements Iterable<Event> {
 			);
 		}
 
-		return expected.cast(queue.pop());
+		Event event = queue.pop();
+
+		if (isMouseMoveCoalescing && event instanceof MouseMoveEvent) {
+			event = coalesceMouseMoveEvents((MouseMoveEvent)event);
+		}
+		else if (isMouseWheelCoalescing && event instanceof MouseWheelEvent) {
+			event = coalesceMouseWheelEvents((MouseWheelEvent)event);
+		}
+
+		return expected.cast(event);
+	}
+
+	private MouseMoveEvent coalesceMouseMoveEvents(MouseMoveEvent first) {
+		if (!hasNow(MouseMoveEvent.class)) return first;
+
+		ArrayList<MouseMoveEvent> path = new ArrayList<>();
+		path.add(first);
+
+		MouseMoveEvent latest = first;
+		while (hasNow(MouseMoveEvent.class)) {
+			latest = (MouseMoveEvent)queue.pop();
+			path.add(latest);
+		}
+
+		latest.setCoalescedEvents(path);
+		return latest;
+	}
+
+	private MouseWheelEvent coalesceMouseWheelEvents(MouseWheelEvent first) {
+		MouseWheelEvent latest = first;
+
+		while (hasNow(MouseWheelEvent.class)) {
+			MouseWheelEvent next = (MouseWheelEvent)queue.pop();
+			next.addWheelRotation(latest.getWheelRotation());
+			latest = next;
+		}
+
+		return latest;
 	}
 }
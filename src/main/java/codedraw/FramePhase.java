@@ -0,0 +1,40 @@
+package codedraw;
+
+/**
+ * The phases of a frame that are measured by {@link FrameStats}.
+ */
+public enum FramePhase {
+	/**
+	 * The time between two consecutive calls to show.
+	 * This is the total time of a frame as it is experienced by the user.
+	 */
+	FRAME,
+	/**
+	 * The time {@link Animation#draw(Image)} takes.
+	 * Only measured when an animation is run through one of the run methods.
+	 */
+	DRAW,
+	/**
+	 * The time between when a frame was due and when drawing it actually started.
+	 * Only measured when an animation is run through one of the run methods.
+	 */
+	JITTER,
+	/**
+	 * The time show waits until the window has finished painting the buffer that the next frame is copied into.
+	 * With {@link PresentationMode#SINGLE_BUFFERED} this is the time until the previous frame has been painted,
+	 * with more buffers show only waits when the window falls behind by more than one frame.
+	 */
+	WAIT_FOR_DISPLAY,
+	/**
+	 * The time show takes to copy the changed region of the image into the buffers of the window.
+	 */
+	COPY,
+	/**
+	 * The time between show requesting a repaint and the event dispatch thread starting to paint.
+	 */
+	PAINT_LATENCY,
+	/**
+	 * The time it takes to paint the buffer onto the screen.
+	 */
+	PAINT
+}
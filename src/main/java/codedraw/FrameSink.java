@@ -0,0 +1,32 @@
+package codedraw;
+
+/**
+ * A FrameSink receives the frames of a {@link HeadlessCanvas}.
+ * It can for example write each frame into a file, pass it to a video encoder or keep it in memory.
+ * <pre>{@code
+ * FrameSink sink = (frame, frameNumber, timestampNanos) ->
+ *     Image.save(frame, "frame" + frameNumber + ".png", ImageFormat.PNG);
+ *
+ * HeadlessCanvas.run(animation, 600, 600, 60, 60, 600, sink);
+ * }</pre>
+ * The frame passed to {@link #onFrame(Image, long, long)} is the canvas itself and is drawn on again
+ * after the method returns. Copy the frame, for example with {@link Image#Image(Image)} or
+ * {@link Image#getPixels(int, int, int, int, int[])}, if it is needed afterwards.
+ */
+@FunctionalInterface
+public interface FrameSink extends AutoCloseable {
+	/**
+	 * Is called each time a frame has been completed.
+	 * @param frame the completed frame.
+	 * @param frameNumber the number of the frame starting at 0.
+	 * @param timestampNanos the point in time the frame belongs to in nanoseconds, the first frame is at 0.
+	 */
+	void onFrame(Image frame, long frameNumber, long timestampNanos);
+
+	/**
+	 * Is called once after the last frame.
+	 * Does nothing by default.
+	 */
+	@Override
+	default void close() { }
+}
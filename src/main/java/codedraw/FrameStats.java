@@ -0,0 +1,158 @@
+package codedraw;
+
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * FrameStats contains timing statistics about the most recent frames that were shown in a window.
+ * Each {@link FramePhase} is measured separately, which makes it possible to find out where the time of a frame is spent.
+ * <pre>{@code
+ * FrameStats stats = cd.getFrameStats();
+ * System.out.println("frame p95: " + stats.getP95Nanoseconds(FramePhase.FRAME) / 1e6 + "ms");
+ * System.out.println("draw p95: " + stats.getP95Nanoseconds(FramePhase.DRAW) / 1e6 + "ms");
+ * }</pre>
+ * Only the last {@value #SAMPLE_CAPACITY} samples of each phase are kept.
+ * Recording samples never blocks and never allocates, computing percentiles copies the samples of a phase.
+ */
+public class FrameStats {
+	FrameStats() {
+		phases = new PhaseSamples[FramePhase.values().length];
+		for (int i = 0; i < phases.length; i++) {
+			phases[i] = new PhaseSamples();
+		}
+	}
+
+	/**
+	 * The number of samples that are kept for each phase.
+	 */
+	public static final int SAMPLE_CAPACITY = 512;
+
+	private final PhaseSamples[] phases;
+	private volatile long droppedFrames = 0;
+
+	/**
+	 * Gets how many samples have been recorded for the given phase in total,
+	 * including those that are no longer kept.
+	 * @param phase a frame phase.
+	 * @return the number of samples.
+	 */
+	public long getSampleCount(FramePhase phase) {
+		if (phase == null) throw createParameterNullException("phase");
+
+		return phases[phase.ordinal()].count.get();
+	}
+
+	/**
+	 * Gets the duration that the given percentage of recent samples of the phase does not exceed.
+	 * @param phase a frame phase.
+	 * @param percentile a value between 0 and 100.
+	 * @return the duration in nanoseconds or 0 if no samples have been recorded.
+	 */
+	public long getPercentileNanoseconds(FramePhase phase, double percentile) {
+		if (phase == null) throw createParameterNullException("phase");
+		if (!(0 <= percentile && percentile <= 100)) throw createParameterOutOfRangeException("percentile", percentile);
+
+		long[] samples = phases[phase.ordinal()].copy();
+		if (samples.length == 0) return 0;
+
+		Arrays.sort(samples);
+		int rank = (int)Math.ceil(percentile / 100 * samples.length) - 1;
+		return samples[Math.max(0, rank)];
+	}
+
+	/**
+	 * Gets the median duration of recent samples of the phase.
+	 * @param phase a frame phase.
+	 * @return the duration in nanoseconds or 0 if no samples have been recorded.
+	 */
+	public long getP50Nanoseconds(FramePhase phase) {
+		return getPercentileNanoseconds(phase, 50);
+	}
+
+	/**
+	 * Gets the duration that 95% of recent samples of the phase do not exceed.
+	 * @param phase a frame phase.
+	 * @return the duration in nanoseconds or 0 if no samples have been recorded.
+	 */
+	public long getP95Nanoseconds(FramePhase phase) {
+		return getPercentileNanoseconds(phase, 95);
+	}
+
+	/**
+	 * Gets the duration that 99% of recent samples of the phase do not exceed.
+	 * @param phase a frame phase.
+	 * @return the duration in nanoseconds or 0 if no samples have been recorded.
+	 */
+	public long getP99Nanoseconds(FramePhase phase) {
+		return getPercentileNanoseconds(phase, 99);
+	}
+
+	/**
+	 * Gets how many frames were skipped because drawing the previous frames took too long.
+	 * Frames are only skipped when an animation is run through one of the run methods.
+	 * @return the number of dropped frames.
+	 */
+	public long getDroppedFrames() {
+		return droppedFrames;
+	}
+
+	void record(FramePhase phase, long nanoseconds) {
+		phases[phase.ordinal()].add(nanoseconds);
+	}
+
+	void setDroppedFrames(long droppedFrames) {
+		this.droppedFrames = droppedFrames;
+	}
+
+	long[] copyRecent(FramePhase phase) {
+		return phases[phase.ordinal()].copy();
+	}
+
+	@Override
+	public String toString() {
+		StringBuilder result = new StringBuilder("FrameStats");
+		for (FramePhase phase : FramePhase.values()) {
+			result.append(String.format(" %s[p50=%.2fms p95=%.2fms p99=%.2fms]",
+				phase,
+				getP50Nanoseconds(phase) / 1e6,
+				getP95Nanoseconds(phase) / 1e6,
+				getP99Nanoseconds(phase) / 1e6
+			));
+		}
+		return result.append(" dropped=").append(droppedFrames).toString();
+	}
+
+	/*
+		Samples are written round robin into a fixed size array.
+		A sample that is overwritten while being copied only makes the copy contain a newer sample.
+	*/
+	private static class PhaseSamples {
+		private final AtomicLongArray samples = new AtomicLongArray(SAMPLE_CAPACITY);
+		private final AtomicLong count = new AtomicLong();
+
+		public void add(long sample) {
+			long index = count.getAndIncrement();
+			samples.set((int)(index % SAMPLE_CAPACITY), sample);
+		}
+
+		// oldest sample first
+		public long[] copy() {
+			long total = count.get();
+			int length = (int)Math.min(total, SAMPLE_CAPACITY);
+			long[] result = new long[length];
+			for (int i = 0; i < length; i++) {
+				result[i] = samples.get((int)((total - length + i) % SAMPLE_CAPACITY));
+			}
+			return result;
+		}
+	}
+
+	private static IllegalArgumentException createParameterNullException(String parameterName) {
+		return new IllegalArgumentException("The parameter " + parameterName + " cannot be null.");
+	}
+
+	private static IllegalArgumentException createParameterOutOfRangeException(String parameterName, double value) {
+		return new IllegalArgumentException("The parameter " + parameterName + " must be between 0 and 100 but was " + value + ".");
+	}
+}
@@ -49,13 +49,27 @@ public class FullScreen extends Image implements AutoCloseable {
 	 * @param simulationsPerSecond the rate at which the {@link Animation#simulate()} method should be called.
 	 */
 	public static void run(Animation animation, Screen screen, int framesPerSecond, int simulationsPerSecond) {
+		run(animation, screen, framesPerSecond, simulationsPerSecond, new AnimationOptions());
+	}
+
+	/**
+	 * Runs the {@link Animation} interface using a fullscreen window.
+	 * This function returns when the fullscreen window is closed by the user.
+	 * @param animation any class implementing the animation interface.
+	 * @param screen the screen which the animation should be displayed on.
+	 * @param framesPerSecond the rate at which the {@link Animation#draw(Image)} method should be called.
+	 * @param simulationsPerSecond the rate at which the {@link Animation#simulate()} method should be called.
+	 * @param options additional options such as adaptive quality, see {@link AnimationOptions}.
+	 */
+	public static void run(Animation animation, Screen screen, int framesPerSecond, int simulationsPerSecond, AnimationOptions options) {
 		if (animation == null) throw createParameterNullException("animation");
 		if (screen == null) throw createParameterNullException("screen");
 		if (framesPerSecond < 1) throw createParameterMustBeGreaterThanZeroException("framesPerSecond");
 		if (simulationsPerSecond < 1) throw createParameterMustBeGreaterThanZeroException("simulationsPerSecond");
+		if (options == null) throw createParameterNullException("options");
 
 		FullScreen fs = new FullScreen(screen);
-		CodeDrawGUI.run(animation, fs.gui, fs, framesPerSecond, simulationsPerSecond);
+		CodeDrawGUI.run(animation, fs.gui, fs, framesPerSecond, simulationsPerSecond, options);
 		fs.close(false);
 	}
 
@@ -100,6 +114,17 @@ public class FullScreen extends Image implements AutoCloseable {
 		return gui.getEventScanner();
 	}
 
+	/**
+	 * Gets the InputState of this CodeDraw window.
+	 * Unlike the EventScanner the InputState does not need to be consumed,
+	 * it always contains the keys and mouse buttons that are currently held down and the current mouse position.
+	 * See the {@link InputState} for more details on how to use it.
+	 * @return an InputState.
+	 */
+	public InputState getInputState() {
+		return gui.getInputState();
+	}
+
 	/**
 	 * When InstantDraw is enabled CodeDraw will immediately draw all shapes to the canvas without calling {@link #show()}.
 	 * When InstantDraw is disabled CodeDraw will only draw shapes to the window once {@link #show()} is called.
@@ -193,6 +218,57 @@ public class FullScreen extends Image implements AutoCloseable {
 		gui.setCursorStyle(cursorStyle);
 	}
 
+	/**
+	 * Defines how the canvas is handed over to the FullScreen window when show is called.
+	 * See {@link PresentationMode} for the available modes.
+	 * The presentation mode is {@link PresentationMode#SINGLE_BUFFERED} per default.
+	 * @return the presentation mode of this FullScreen window.
+	 */
+	public PresentationMode getPresentationMode() {
+		return gui.getPresentationMode();
+	}
+
+	/**
+	 * Defines how the canvas is handed over to the FullScreen window when show is called.
+	 * See {@link PresentationMode} for the available modes.
+	 * The presentation mode is {@link PresentationMode#SINGLE_BUFFERED} per default.
+	 * @param presentationMode Sets the presentation mode of this FullScreen window.
+	 */
+	public void setPresentationMode(PresentationMode presentationMode) {
+		if (presentationMode == null) throw createParameterNullException("presentationMode");
+
+		gui.setPresentationMode(presentationMode);
+	}
+
+	/**
+	 * Gets the frame timing statistics of this FullScreen window.
+	 * The statistics show how long the recent frames took and where that time was spent.
+	 * See {@link FrameStats} for more details.
+	 * @return the frame statistics.
+	 */
+	public FrameStats getFrameStats() {
+		return gui.getFrameStats();
+	}
+
+	/**
+	 * Whether a frame time graph is displayed in the top left corner of this FullScreen window.
+	 * The performance overlay is disabled by default.
+	 * @return whether the performance overlay is displayed.
+	 */
+	public boolean isPerformanceOverlay() {
+		return gui.isPerformanceOverlay();
+	}
+
+	/**
+	 * Displays a graph of the recent frame times in the top left corner of this FullScreen window
+	 * together with the 50th, 95th and 99th percentile and the number of dropped frames.
+	 * The overlay is only displayed and never drawn onto the canvas.
+	 * @param isPerformanceOverlay whether the performance overlay is displayed.
+	 */
+	public void setPerformanceOverlay(boolean isPerformanceOverlay) {
+		gui.setPerformanceOverlay(isPerformanceOverlay);
+	}
+
 	/**
 	 * Displays all the shapes and images that were drawn onto the canvas.
 	 * Since showing the drawn elements in the CodeDraw window is slow,
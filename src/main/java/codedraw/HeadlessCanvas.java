@@ -0,0 +1,180 @@
+package codedraw;
+
+import java.util.function.LongSupplier;
+
+/**
+ * The HeadlessCanvas works like {@link CodeDraw} but without a window.
+ * Instead of being displayed, each frame is passed to a {@link FrameSink}.
+ * No window system is needed, therefore the HeadlessCanvas also runs on servers without a display.
+ * <pre>{@code
+ * try (HeadlessCanvas canvas = new HeadlessCanvas(600, 600, sink)) {
+ *     for (int i = 0; i < 100; i++) {
+ *         canvas.clear();
+ *         canvas.fillCircle(i * 6, 300, 20);
+ *         canvas.show();
+ *     }
+ * }
+ * }</pre>
+ * Animations are rendered as fast as possible with {@link #run(Animation, int, int, int, int, long, FrameSink)}.
+ * Time only passes in the animation, so rendering a minute of animation might take a lot less or a lot more than a minute.
+ * There is no user input, therefore the event methods of the animation are never called.
+ */
+public class HeadlessCanvas extends Image implements AutoCloseable {
+	/**
+	 * Renders the given number of frames of the {@link Animation} at 60 frames per second and 60 simulations per second.
+	 * Each frame is passed to the sink and the sink is closed after the last frame.
+	 * @param animation any class implementing the animation interface.
+	 * @param width the width of the canvas.
+	 * @param height the height of the canvas.
+	 * @param frameCount the number of frames that are rendered.
+	 * @param sink receives each frame.
+	 */
+	public static void run(Animation animation, int width, int height, long frameCount, FrameSink sink) {
+		run(animation, width, height, 60, 60, frameCount, sink);
+	}
+
+	/**
+	 * Renders the given number of frames of the {@link Animation} as fast as possible.
+	 * The animation runs on a virtual clock: between two frames exactly 1 / framesPerSecond seconds pass
+	 * and {@link Animation#simulate()} is called as often as it would be called in that time when running in a window.
+	 * An {@link InterpolatedAnimation} receives the same interpolation alpha it would receive in a window.
+	 * Each frame is passed to the sink and the sink is closed after the last frame.
+	 * @param animation any class implementing the animation interface.
+	 * @param width the width of the canvas.
+	 * @param height the height of the canvas.
+	 * @param framesPerSecond the rate at which the {@link Animation#draw(Image)} method is called in animation time.
+	 * @param simulationsPerSecond the rate at which the {@link Animation#simulate()} method is called in animation time.
+	 * @param frameCount the number of frames that are rendered.
+	 * @param sink receives each frame.
+	 */
+	public static void run(Animation animation, int width, int height, int framesPerSecond, int simulationsPerSecond, long frameCount, FrameSink sink) {
+		if (animation == null) throw createParameterNullException("animation");
+		if (width < 1) throw createParameterMustBeGreaterThanZeroException("width");
+		if (height < 1) throw createParameterMustBeGreaterThanZeroException("height");
+		if (framesPerSecond < 1) throw createParameterMustBeGreaterThanZeroException("framesPerSecond");
+		if (simulationsPerSecond < 1) throw createParameterMustBeGreaterThanZeroException("simulationsPerSecond");
+		if (frameCount < 0) throw createParameterZeroOrGreaterException("frameCount");
+		if (sink == null) throw createParameterNullException("sink");
+
+		try (HeadlessCanvas canvas = new HeadlessCanvas(width, height, sink)) {
+			VirtualClock clock = new VirtualClock();
+			Scheduler frames = new Scheduler(framesPerSecond, true, clock);
+			Scheduler simulations = new Scheduler(simulationsPerSecond, false, clock);
+			InterpolatedAnimation interpolated = animation instanceof InterpolatedAnimation ? (InterpolatedAnimation)animation : null;
+
+			for (long frame = 0; frame < frameCount; frame++) {
+				clock.advance(frames.timeUntilNextTask());
+				frames.shouldDoTask();
+
+				while (simulations.shouldDoTask()) {
+					animation.simulate();
+				}
+
+				if (interpolated != null) {
+					interpolated.draw(canvas, simulations.getProgressToNextTask());
+				}
+				else {
+					animation.draw(canvas);
+				}
+
+				canvas.show(clock.getAsLong());
+			}
+		}
+	}
+
+	/**
+	 * Creates a canvas with the specified size that passes its frames to the sink.
+	 * @param width must be at least 1 pixel
+	 * @param height must be at least 1 pixel
+	 * @param sink receives a frame each time {@link #show()} is called.
+	 */
+	public HeadlessCanvas(int width, int height, FrameSink sink) {
+		super(width, height, Palette.WHITE);
+		if (sink == null) throw createParameterNullException("sink");
+
+		this.sink = sink;
+	}
+
+	private final FrameSink sink;
+	private long firstFrameTime = 0;
+	private long frameNumber = 0;
+	private boolean isClosed = false;
+
+	/**
+	 * Passes the current canvas to the sink.
+	 * The timestamp of the first frame is 0, the timestamps of the following frames are the time
+	 * that has passed since the first frame was shown.
+	 */
+	public void show() {
+		long now = System.nanoTime();
+		if (frameNumber == 0) {
+			firstFrameTime = now;
+		}
+		show(now - firstFrameTime);
+	}
+
+	private void show(long timestampNanos) {
+		if (isClosed) throw new IllegalStateException("This HeadlessCanvas has already been closed.");
+
+		sink.onFrame(this, frameNumber++, timestampNanos);
+	}
+
+	/**
+	 * The number of frames that have been passed to the sink.
+	 * @return the number of frames.
+	 */
+	public long getFrameCount() {
+		return frameNumber;
+	}
+
+	/**
+	 * Checks whether this canvas has already been closed.
+	 * @return whether this canvas is closed.
+	 */
+	public boolean isClosed() {
+		return isClosed;
+	}
+
+	/**
+	 * Closes the sink. Afterwards no more frames can be shown.
+	 * Calling close multiple times has no effect.
+	 */
+	@Override
+	public void close() {
+		if (!isClosed) {
+			isClosed = true;
+			sink.close();
+		}
+	}
+
+	@Override
+	public String toString() {
+		return "HeadlessCanvas " + getWidth() + "x" + getHeight() + " after " + frameNumber + " frames";
+	}
+
+	// Time only moves forward when advance is called.
+	private static class VirtualClock implements LongSupplier {
+		private long now = 0;
+
+		public void advance(long nanoseconds) {
+			now += Math.max(0, nanoseconds);
+		}
+
+		@Override
+		public long getAsLong() {
+			return now;
+		}
+	}
+
+	private static IllegalArgumentException createParameterNullException(String parameterName) {
+		return new IllegalArgumentException("The parameter " + parameterName + " cannot be null.");
+	}
+
+	private static IllegalArgumentException createParameterMustBeGreaterThanZeroException(String parameterName) {
+		return new IllegalArgumentException("The parameter " + parameterName + " must be greater than zero.");
+	}
+
+	private static IllegalArgumentException createParameterZeroOrGreaterException(String parameterName) {
+		return new IllegalArgumentException("The parameter " + parameterName + " must be zero or greater.");
+	}
+}
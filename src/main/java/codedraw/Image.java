@@ -4,11 +4,13 @@ import javax.imageio.ImageIO;
 import java.awt.*;
 import java.awt.geom.*;
 import java.awt.image.BufferedImage;
+import java.awt.image.DataBufferInt;
 import java.awt.image.RenderedImage;
 import java.io.*;
 import java.net.MalformedURLException;
 import java.net.URL;
 import java.util.Base64;
+import java.util.concurrent.CompletableFuture;
 
 /**
  * This class represents an image that can be used within the CodeDraw library.
@@ -30,6 +32,7 @@ public class Image {
 	 * Image image = Image.fromFile("/directory/filename.png");
 	 * }</pre>
 	 * {@link ImageIO#read(File)} is used to read images from the file system.
+	 * Use an {@link ImageCache} to avoid decoding the same image again each time it is loaded.
 	 * @param pathToImage A string that points to an image file.
 	 * @return An image.
 	 */
@@ -94,6 +97,7 @@ public class Image {
 	 *      .jpg or .jpeg (JPEG), .bmp (Bitmap), .gif (Graphics Interchange Format),
 	 *      .png (Portable Network Graphic) and .wbmp (Wireless Application Protocol Bitmap Format).
 	 * {@link ImageIO#read(URL)} is used to read images from the resource folder.
+	 * Use an {@link ImageCache} to avoid decoding the same image again each time it is loaded.
 	 * @param resourceName Path to the resource from the root of the resource folder.
 	 * @return An image.
 	 */
@@ -210,6 +214,7 @@ public class Image {
 		if (pathToImage == null) throw createParameterNullException("pathToImage");
 		if (format == null) throw createParameterNullException("format");
 
+		Object profilerHandle = Profiler.PROFILER.beginSave();
 		try {
 			boolean result = ImageIO.write(
 					image.toBufferedImage(format.supportsTransparency() ? BufferedImageType.INT_ARGB : BufferedImageType.INT_RGB),
@@ -217,12 +222,62 @@ public class Image {
 					new File(pathToImage)
 			);
 			if (!result) throw new RuntimeException("Could not save image, because no appropriate writer has been found in ImageIO.");
+			Profiler.PROFILER.endSave(profilerHandle, pathToImage, format, image.getWidth(), image.getHeight());
 		}
 		catch (IOException e) {
 			throw new UncheckedIOException("The image could not be saved. " + e.getMessage(), e);
 		}
 	}
 
+	/**
+	 * Saves the image to the specified location on a background thread.
+	 * The pixels of the image are copied before this method returns,
+	 * therefore the image can be drawn on right away without changing the saved image.
+	 * <pre>{@code
+	 * Image.saveAsync(poster, "poster.png", ImageFormat.PNG)
+	 *     .thenRun(() -> System.out.println("The poster has been saved."));
+	 * }</pre>
+	 * Images in the {@link ImageFormat#PNG} format are compressed on all cores at the same time,
+	 * which makes saving large images a lot faster than {@link #save(Image, String, ImageFormat)}.
+	 * Like {@link #save(Image, String, ImageFormat)}, transparent pixels are saved in front of a white background.
+	 * DPI aware images are saved at their width and height, see {@link #getPixels(int, int, int, int, int[])}.
+	 * The program does not exit before saving has finished.
+	 * @param image any image.
+	 * @param pathToImage The location where the image should be saved.
+	 * @param format The format the image should be saved in.
+	 *               As a default, choose {@link ImageFormat#PNG} and make sure that the file ends with ".png".
+	 * @return a future that completes once the image has been saved.
+	 *         If the image could not be saved, the future completes exceptionally with an {@link UncheckedIOException}.
+	 */
+	public static CompletableFuture<Void> saveAsync(Image image, String pathToImage, ImageFormat format) {
+		if (image == null) throw createParameterNullException("image");
+		if (pathToImage == null) throw createParameterNullException("pathToImage");
+		if (format == null) throw createParameterNullException("format");
+
+		int width = image.getWidth();
+		int height = image.getHeight();
+		int[] argb = new int[width * height];
+		image.getPixels(0, 0, width, height, argb);
+
+		CompletableFuture<Void> result = new CompletableFuture<>();
+		new Thread(() -> {
+			Object profilerHandle = Profiler.PROFILER.beginSave();
+			try {
+				ImageEncoding.flattenOntoWhite(argb, argb.length);
+				ImageEncoding.write(argb, width, height, format, pathToImage, true);
+				Profiler.PROFILER.endSave(profilerHandle, pathToImage, format, width, height);
+				result.complete(null);
+			}
+			catch (IOException e) {
+				result.completeExceptionally(new UncheckedIOException("The image could not be saved. " + e.getMessage(), e));
+			}
+			catch (Throwable t) {
+				result.completeExceptionally(t);
+			}
+		}, "CodeDraw Save").start();
+		return result;
+	}
+
 	/**
 	 * Creates a new image from the given image that only contains the specified section.
 	 * @param source The image from which a new smaller image should be created from.
@@ -353,6 +408,191 @@ public class Image {
 		return result;
 	}
 
+	/**
+	 * Blurs the image using a gaussian blur.
+	 * Pixels outside the image have the color of the closest pixel on the border, see {@link EdgeMode#CLAMP}.
+	 * @param source The image to blur.
+	 * @param radius The distance in pixel up to which neighbouring pixels influence the color of a pixel.
+	 * @return A blurred copy of the image.
+	 */
+	public static Image gaussianBlur(Image source, double radius) {
+		return gaussianBlur(source, radius, EdgeMode.CLAMP);
+	}
+
+	/**
+	 * Blurs the image using a gaussian blur.
+	 * The blur is separated into a horizontal and a vertical pass which are calculated on multiple threads.
+	 * @param source The image to blur.
+	 * @param radius The distance in pixel up to which neighbouring pixels influence the color of a pixel.
+	 * @param edgeMode Defines the color of pixels outside the image. See {@link EdgeMode}.
+	 * @return A blurred copy of the image.
+	 */
+	public static Image gaussianBlur(Image source, double radius, EdgeMode edgeMode) {
+		if (source == null) throw createParameterNullException("source");
+		if (edgeMode == null) throw createParameterNullException("edgeMode");
+		checkNaNAndInfinity(radius, "radius");
+		if (radius <= 0) throw createParameterMustBeGreaterThanZeroException("radius");
+
+		int xRadius = Math.max(1, (int)Math.round(radius * source.xScale));
+		int yRadius = Math.max(1, (int)Math.round(radius * source.yScale));
+		return filter(source, (s, t, w, h) -> Convolution.gaussianBlur(s, t, w, h, xRadius, yRadius, edgeMode));
+	}
+
+	/**
+	 * Blurs the image using a box blur. Each pixel becomes the average of all pixels in a square around it.
+	 * Pixels outside the image have the color of the closest pixel on the border, see {@link EdgeMode#CLAMP}.
+	 * @param source The image to blur.
+	 * @param radius The distance in pixel from the center to the border of the square.
+	 * @return A blurred copy of the image.
+	 */
+	public static Image boxBlur(Image source, int radius) {
+		return boxBlur(source, radius, EdgeMode.CLAMP);
+	}
+
+	/**
+	 * Blurs the image using a box blur. Each pixel becomes the average of all pixels in a square around it.
+	 * The time it takes to blur an image does not depend on the radius.
+	 * @param source The image to blur.
+	 * @param radius The distance in pixel from the center to the border of the square.
+	 * @param edgeMode Defines the color of pixels outside the image. See {@link EdgeMode}.
+	 * @return A blurred copy of the image.
+	 */
+	public static Image boxBlur(Image source, int radius, EdgeMode edgeMode) {
+		if (source == null) throw createParameterNullException("source");
+		if (edgeMode == null) throw createParameterNullException("edgeMode");
+		if (radius <= 0) throw createParameterMustBeGreaterThanZeroException("radius");
+
+		int xRadius = radius * source.xScale;
+		int yRadius = radius * source.yScale;
+		return filter(source, (s, t, w, h) -> Convolution.boxBlur(s, t, w, h, xRadius, yRadius, edgeMode));
+	}
+
+	/**
+	 * Sharpens the image by increasing the contrast between neighbouring pixels.
+	 * Pixels outside the image have the color of the closest pixel on the border, see {@link EdgeMode#CLAMP}.
+	 * @param source The image to sharpen.
+	 * @return A sharpened copy of the image.
+	 */
+	public static Image sharpen(Image source) {
+		return sharpen(source, EdgeMode.CLAMP);
+	}
+
+	/**
+	 * Sharpens the image by increasing the contrast between neighbouring pixels.
+	 * @param source The image to sharpen.
+	 * @param edgeMode Defines the color of pixels outside the image. See {@link EdgeMode}.
+	 * @return A sharpened copy of the image.
+	 */
+	public static Image sharpen(Image source, EdgeMode edgeMode) {
+		return convolve(source, new double[][] {
+			{  0, -1,  0 },
+			{ -1,  5, -1 },
+			{  0, -1,  0 }
+		}, edgeMode);
+	}
+
+	/**
+	 * Highlights the edges in the image using the Sobel operator.
+	 * See <a href="https://en.wikipedia.org/wiki/Sobel_operator">Wikipedia Sobel Operator</a>.
+	 * Areas of the image with the same color become black and edges become bright.
+	 * The transparency of the image is preserved.
+	 * Pixels outside the image have the color of the closest pixel on the border, see {@link EdgeMode#CLAMP}.
+	 * @param source The image in which edges should be detected.
+	 * @return A new image showing the edges of the image.
+	 */
+	public static Image detectEdges(Image source) {
+		return detectEdges(source, EdgeMode.CLAMP);
+	}
+
+	/**
+	 * Highlights the edges in the image using the Sobel operator.
+	 * See <a href="https://en.wikipedia.org/wiki/Sobel_operator">Wikipedia Sobel Operator</a>.
+	 * Areas of the image with the same color become black and edges become bright.
+	 * The transparency of the image is preserved.
+	 * @param source The image in which edges should be detected.
+	 * @param edgeMode Defines the color of pixels outside the image. See {@link EdgeMode}.
+	 * @return A new image showing the edges of the image.
+	 */
+	public static Image detectEdges(Image source, EdgeMode edgeMode) {
+		if (source == null) throw createParameterNullException("source");
+		if (edgeMode == null) throw createParameterNullException("edgeMode");
+
+		return filter(source, (s, t, w, h) -> Convolution.sobel(s, t, w, h, source.xScale, source.yScale, edgeMode));
+	}
+
+	/**
+	 * Applies a custom convolution kernel to the image.
+	 * See <a href="https://en.wikipedia.org/wiki/Kernel_(image_processing)">Wikipedia Kernel (image processing)</a>.
+	 * The kernel is given row by row and must have an odd number of rows and columns,
+	 * the center of the kernel is applied to the pixel that is being calculated.
+	 * <pre>{@code
+	 * Image embossed = Image.convolve(image, new double[][] {
+	 *     { -2, -1, 0 },
+	 *     { -1,  1, 1 },
+	 *     {  0,  1, 2 }
+	 * });
+	 * }</pre>
+	 * Pixels outside the image have the color of the closest pixel on the border, see {@link EdgeMode#CLAMP}.
+	 * @param source The image the kernel is applied to.
+	 * @param kernel The weights of the neighbouring pixels.
+	 * @return A new filtered image.
+	 */
+	public static Image convolve(Image source, double[][] kernel) {
+		return convolve(source, kernel, EdgeMode.CLAMP);
+	}
+
+	/**
+	 * Applies a custom convolution kernel to the image.
+	 * See <a href="https://en.wikipedia.org/wiki/Kernel_(image_processing)">Wikipedia Kernel (image processing)</a>.
+	 * The kernel is given row by row and must have an odd number of rows and columns,
+	 * the center of the kernel is applied to the pixel that is being calculated.
+	 * @param source The image the kernel is applied to.
+	 * @param kernel The weights of the neighbouring pixels.
+	 * @param edgeMode Defines the color of pixels outside the image. See {@link EdgeMode}.
+	 * @return A new filtered image.
+	 */
+	public static Image convolve(Image source, double[][] kernel, EdgeMode edgeMode) {
+		if (source == null) throw createParameterNullException("source");
+		if (kernel == null) throw createParameterNullException("kernel");
+		if (edgeMode == null) throw createParameterNullException("edgeMode");
+
+		int kernelHeight = kernel.length;
+		if (kernelHeight % 2 == 0) throw createKernelSizeException();
+		int kernelWidth = checkParameterNull(kernel[0], "kernel[0]").length;
+		if (kernelWidth % 2 == 0) throw createKernelSizeException();
+
+		float[] weights = new float[kernelWidth * kernelHeight];
+		for (int row = 0; row < kernelHeight; row++) {
+			if (kernel[row] == null) throw createParameterNullException("kernel[" + row + "]");
+			if (kernel[row].length != kernelWidth) throw new IllegalArgumentException("All rows of the kernel must have the same length.");
+			checkNaNAndInfinity(kernel[row], "kernel[" + row + "]");
+
+			for (int column = 0; column < kernelWidth; column++) {
+				weights[row * kernelWidth + column] = (float)kernel[row][column];
+			}
+		}
+
+		return filter(source, (s, t, w, h) -> Convolution.convolve(s, t, w, h, weights, kernelWidth, kernelHeight, source.xScale, source.yScale, edgeMode));
+	}
+
+	private static IllegalArgumentException createKernelSizeException() {
+		return new IllegalArgumentException("The kernel must have an odd number of rows and columns, so that it has a center.");
+	}
+
+	private static Image filter(Image source, RasterFilter filter) {
+		Image result = new Image(source.width, source.height, source.xScale, source.yScale, Palette.TRANSPARENT);
+		int[] target = result.getRasterData();
+
+		filter.apply(Convolution.premultiply(source.getRasterData()), target, source.width * source.xScale, source.height * source.yScale);
+		Convolution.unpremultiply(target);
+
+		return result;
+	}
+
+	private interface RasterFilter {
+		void apply(int[] source, int[] target, int rasterWidth, int rasterHeight);
+	}
+
 	/**
 	 * Creates a copy of the image supplied as a parameter.
 	 * The configuration of the image will not be copied.
@@ -402,7 +642,7 @@ public class Image {
 		this(width, height, upscale(dpi.getScaleX()), upscale(dpi.getScaleY()), backgroundColor);
 	}
 
-	private Image(int width, int height, int xScale, int yScale, Color backgroundColor) {
+	Image(int width, int height, int xScale, int yScale, Color backgroundColor) {
 		if (width < 1) throw createParameterMustBeGreaterThanZeroException("width");
 		if (height < 1) throw createParameterMustBeGreaterThanZeroException("height");
 		if (xScale < 1) throw createParameterMustBeGreaterThanZeroException("xScale");
@@ -437,6 +677,16 @@ public class Image {
 	private boolean drawOver = true;
 	private TextFormat textFormat = new TextFormat();
 	private Matrix2D transformation = Matrix2D.IDENTITY;
+	private boolean isLocked = false;
+
+	// the transformation including the DPI upscaling, maps coordinates of shapes to coordinates on the raster
+	private AffineTransform deviceTransform = new AffineTransform();
+	// the section of the raster that changed since the last call to takeDirtyRegion, max values are exclusive
+	private boolean isDirty = false;
+	private int dirtyMinX;
+	private int dirtyMinY;
+	private int dirtyMaxX;
+	private int dirtyMaxY;
 
 	/**
 	 * Sets all drawing properties to their default value.
@@ -669,7 +919,8 @@ public class Image {
 	 */
 	public void setTransformation(Matrix2D transformation) {
 		this.transformation = transformation;
-		this.g.setTransform(transformation.scale(xScale, yScale).toAffineTransform());
+		this.deviceTransform = transformation.scale(xScale, yScale).toAffineTransform();
+		this.g.setTransform(deviceTransform);
 	}
 
 	/**
@@ -754,10 +1005,219 @@ public class Image {
 					image.setRGB(xi, yi, argb);
 				}
 			}
+			markRasterDirty(xStart, yStart, xStart + xScale, yStart + yScale);
+		}
+		afterDrawing();
+	}
+
+	/**
+	 * Copies the colors of a rectangular section of this image into an array.
+	 * The colors are stored as ARGB integers row by row, meaning the color of the pixel (x + i, y + j)
+	 * can be found at the index j * width + i.
+	 * Use {@link Palette#fromARGB(int)} to convert a single value back to a color.
+	 * On DPI aware images the colors of the up-scaled pixels are averaged the same way {@link #getPixel(int, int)} does.
+	 * Ignores any transformation set by {@link #setTransformation(Matrix2D)}.
+	 * @param x The distance in pixel from the left side of the image to the left side of the section.
+	 * @param y The distance in pixel from the top side of the image to the top side of the section.
+	 * @param width The width of the section.
+	 * @param height The height of the section.
+	 * @param argbOut The array the colors are written into. Must have a length of at least width * height.
+	 */
+	public void getPixels(int x, int y, int width, int height, int[] argbOut) {
+		if (argbOut == null) throw createParameterNullException("argbOut");
+		checkPixelSection(x, y, width, height, argbOut);
+
+		int[] raster = getRasterData();
+		int rasterWidth = this.width * xScale;
+
+		if (xScale == 1 && yScale == 1) {
+			for (int row = 0; row < height; row++) {
+				System.arraycopy(raster, (y + row) * rasterWidth + x, argbOut, row * width, width);
+			}
+		}
+		else {
+			for (int row = 0; row < height; row++) {
+				for (int column = 0; column < width; column++) {
+					argbOut[row * width + column] = averageBlock(raster, rasterWidth, x + column, y + row);
+				}
+			}
+		}
+	}
+
+	/**
+	 * Sets the colors of a rectangular section of this image from an array.
+	 * The colors are read as ARGB integers row by row, meaning the color of the pixel (x + i, y + j)
+	 * is taken from the index j * width + i.
+	 * Use {@link Color#getRGB()} to convert a color to an ARGB integer.
+	 * On DPI aware images every up-scaled pixel is set to the same color the way {@link #setPixel(int, int, Color)} does.
+	 * The colors replace the existing pixels, they are not drawn over them.
+	 * Ignores any transformation set by {@link #setTransformation(Matrix2D)}.
+	 * @param x The distance in pixel from the left side of the image to the left side of the section.
+	 * @param y The distance in pixel from the top side of the image to the top side of the section.
+	 * @param width The width of the section.
+	 * @param height The height of the section.
+	 * @param argb The colors of the section. Must have a length of at least width * height.
+	 */
+	public void setPixels(int x, int y, int width, int height, int[] argb) {
+		if (argb == null) throw createParameterNullException("argb");
+		checkPixelSection(x, y, width, height, argb);
+
+		beforeDrawing();
+		markRasterDirty(x * xScale, y * yScale, (x + width) * xScale, (y + height) * yScale);
+		int[] raster = getRasterData();
+		int rasterWidth = this.width * xScale;
+
+		if (xScale == 1 && yScale == 1) {
+			for (int row = 0; row < height; row++) {
+				System.arraycopy(argb, row * width, raster, (y + row) * rasterWidth + x, width);
+			}
+		}
+		else {
+			for (int row = 0; row < height; row++) {
+				int start = (y + row) * yScale * rasterWidth + x * xScale;
+
+				for (int column = 0; column < width; column++) {
+					int color = argb[row * width + column];
+					int index = start + column * xScale;
+					for (int xi = 0; xi < xScale; xi++) {
+						raster[index + xi] = color;
+					}
+				}
+
+				int rowLength = width * xScale;
+				for (int yi = 1; yi < yScale; yi++) {
+					System.arraycopy(raster, start, raster, start + yi * rasterWidth, rowLength);
+				}
+			}
 		}
 		afterDrawing();
 	}
 
+	/**
+	 * Locks the pixels of this image for direct editing without copying them.
+	 * The returned {@link PixelAccessor} must be closed once editing is done,
+	 * preferably by using a try-with-resources statement.
+	 * Closing the accessor notifies the image that it has changed,
+	 * for example a {@link CodeDraw} window with InstantDraw enabled will display the changes.
+	 * An image can only be locked once at a time.
+	 * <pre>{@code
+	 * try (PixelAccessor pixels = image.lockPixels()) {
+	 *     pixels.set(0, 0, 0xFFFF0000);
+	 * }
+	 * }</pre>
+	 * @return a PixelAccessor backed by the pixels of this image.
+	 */
+	public PixelAccessor lockPixels() {
+		if (isLocked) throw new IllegalStateException("The pixels of this image are already locked. Close the previous PixelAccessor before locking the image again.");
+
+		beforeDrawing();
+		isLocked = true;
+		return new PixelAccessor(this, getRasterData(), width * xScale, height * yScale);
+	}
+
+	void unlockPixels() {
+		isLocked = false;
+		markAllDirty();
+		afterDrawing();
+	}
+
+	/**
+	 * Calculates the color of every pixel of this image with the shader given as a parameter.
+	 * The shader receives the coordinates and the current color of a pixel and returns its new color.
+	 * Rows of the image are calculated in parallel on the common {@link java.util.concurrent.ForkJoinPool}.
+	 * <pre>{@code
+	 * image.shade((x, y, argb) -> (x + y) % 2 == 0 ? 0xFF000000 : 0xFFFFFFFF);
+	 * }</pre>
+	 * On DPI aware images the shader is called once per pixel with the averaged color of the up-scaled pixels,
+	 * just like {@link #getPixel(int, int)}.
+	 * The colors replace the existing pixels, they are not drawn over them.
+	 * Ignores any transformation set by {@link #setTransformation(Matrix2D)}.
+	 * @param shader The function that calculates the color of each pixel.
+	 */
+	public void shade(PixelShader shader) {
+		shade(shader, true);
+	}
+
+	/**
+	 * Calculates the color of every pixel of this image with the shader given as a parameter.
+	 * The shader receives the coordinates and the current color of a pixel and returns its new color.
+	 * When isParallel is false every pixel is calculated on the calling thread from left to right and top to bottom,
+	 * which is useful for shaders that are not thread safe or for reproducible results in tests.
+	 * See {@link #shade(PixelShader)} for more details.
+	 * @param shader The function that calculates the color of each pixel.
+	 * @param isParallel Whether the rows of the image are calculated in parallel on multiple threads.
+	 */
+	public void shade(PixelShader shader, boolean isParallel) {
+		if (shader == null) throw createParameterNullException("shader");
+
+		beforeDrawing();
+		markAllDirty();
+		int[] raster = getRasterData();
+		int rasterWidth = width * xScale;
+
+		RowBands.forEach(height, isParallel, (startRow, endRow) -> {
+			if (xScale == 1 && yScale == 1) {
+				for (int y = startRow; y < endRow; y++) {
+					int rowStart = y * rasterWidth;
+					for (int x = 0; x < width; x++) {
+						raster[rowStart + x] = shader.shade(x, y, raster[rowStart + x]);
+					}
+				}
+			}
+			else {
+				for (int y = startRow; y < endRow; y++) {
+					for (int x = 0; x < width; x++) {
+						fillBlock(raster, rasterWidth, x, y, shader.shade(x, y, averageBlock(raster, rasterWidth, x, y)));
+					}
+				}
+			}
+		});
+		afterDrawing();
+	}
+
+	private int averageBlock(int[] raster, int rasterWidth, int x, int y) {
+		int a = 0, r = 0, g = 0, b = 0;
+		int start = y * yScale * rasterWidth + x * xScale;
+
+		for (int yi = 0; yi < yScale; yi++) {
+			for (int xi = 0; xi < xScale; xi++) {
+				int argb = raster[start + yi * rasterWidth + xi];
+				a += (argb >>> 24) & 0xFF;
+				r += (argb >> 16) & 0xFF;
+				g += (argb >> 8) & 0xFF;
+				b += argb & 0xFF;
+			}
+		}
+
+		int count = xScale * yScale;
+		return (a / count) << 24 | (r / count) << 16 | (g / count) << 8 | (b / count);
+	}
+
+	private void fillBlock(int[] raster, int rasterWidth, int x, int y, int argb) {
+		int start = y * yScale * rasterWidth + x * xScale;
+
+		for (int yi = 0; yi < yScale; yi++) {
+			for (int xi = 0; xi < xScale; xi++) {
+				raster[start + yi * rasterWidth + xi] = argb;
+			}
+		}
+	}
+
+	private void checkPixelSection(int x, int y, int width, int height, int[] argb) {
+		if (width < 1) throw createParameterMustBeGreaterThanZeroException("width");
+		if (height < 1) throw createParameterMustBeGreaterThanZeroException("height");
+		if (x < 0 || getWidth() <= x) throw createParameterNotInRangeException("x", 0, getWidth());
+		if (y < 0 || getHeight() <= y) throw createParameterNotInRangeException("y", 0, getHeight());
+		if (x + width > getWidth()) throw new IllegalArgumentException("The parameters x + width must be less than or equal to the width of the image.");
+		if (y + height > getHeight()) throw new IllegalArgumentException("The parameters y + height must be less than or equal to the height of the image.");
+		if (argb.length < width * height) throw new IllegalArgumentException("The array must have a length of at least width * height (" + width * height + ") but has a length of " + argb.length + ".");
+	}
+
+	// The raster of a TYPE_INT_ARGB image is always backed by a single DataBufferInt with a scanline stride of image.getWidth().
+	private int[] getRasterData() {
+		return ((DataBufferInt)image.getRaster().getDataBuffer()).getData();
+	}
+
 	/**
 	 * Draws the text at the specified (x, y) coordinate.
 	 * Formatting options can be set via the TextFormat object.
@@ -775,7 +1235,10 @@ public class Image {
 		checkNaNAndInfinity(y, "y");
 
 		beforeDrawing();
-		TextFormat.drawText(g, x, y, text, textFormat);
+		Object profilerHandle = Profiler.PROFILER.beginDraw();
+		Rectangle2D bounds = TextFormat.drawText(g, x, y, text, textFormat);
+		Profiler.PROFILER.endDraw(profilerHandle, "Text", bounds.getWidth(), bounds.getHeight());
+		markDirty(bounds, 0);
 		afterDrawing();
 	}
 
@@ -790,7 +1253,7 @@ public class Image {
 		checkNaNAndInfinity(centerY, "centerY");
 
 		beforeDrawing();
-		g.fill(Shapes.ellipse(centerX, centerY, lineWidth / 2, lineWidth / 2));
+		fillShape(Shapes.ellipse(centerX, centerY, lineWidth / 2, lineWidth / 2));
 		afterDrawing();
 	}
 
@@ -810,7 +1273,7 @@ public class Image {
 		checkNaNAndInfinity(endY, "endY");
 
 		beforeDrawing();
-		g.draw(Shapes.line(startX, startY, endX, endY));
+		strokeShape(Shapes.line(startX, startY, endX, endY));
 		afterDrawing();
 	}
 
@@ -836,7 +1299,7 @@ public class Image {
 		checkNaNAndInfinity(endY, "endY");
 
 		beforeDrawing();
-		g.draw(Shapes.curve(startX, startY, controlX, controlY, endX, endY));
+		strokeShape(Shapes.curve(startX, startY, controlX, controlY, endX, endY));
 		afterDrawing();
 	}
 
@@ -866,7 +1329,7 @@ public class Image {
 		checkNaNAndInfinity(endY, "endY");
 
 		beforeDrawing();
-		g.draw(Shapes.bezierCurve(startX, startY, control1X, control1Y, control2X, control2Y, endX, endY));
+		strokeShape(Shapes.bezierCurve(startX, startY, control1X, control1Y, control2X, control2Y, endX, endY));
 		afterDrawing();
 	}
 
@@ -886,7 +1349,7 @@ public class Image {
 		checkNaNAndInfinity(sideLength, "sideLength");
 
 		beforeDrawing();
-		g.draw(Shapes.rectangle(x, y, sideLength, sideLength, corner, cornerRadius));
+		strokeShape(Shapes.rectangle(x, y, sideLength, sideLength, corner, cornerRadius));
 		afterDrawing();
 	}
 
@@ -905,7 +1368,7 @@ public class Image {
 		checkNaNAndInfinity(sideLength, "sideLength");
 
 		beforeDrawing();
-		g.fill(Shapes.rectangle(x, y, sideLength, sideLength, corner, cornerRadius));
+		fillShape(Shapes.rectangle(x, y, sideLength, sideLength, corner, cornerRadius));
 		afterDrawing();
 	}
 
@@ -928,7 +1391,7 @@ public class Image {
 		checkNaNAndInfinity(height, "height");
 
 		beforeDrawing();
-		g.draw(Shapes.rectangle(x, y, width, height, corner, cornerRadius));
+		strokeShape(Shapes.rectangle(x, y, width, height, corner, cornerRadius));
 		afterDrawing();
 	}
 
@@ -950,7 +1413,7 @@ public class Image {
 		checkNaNAndInfinity(height, "height");
 
 		beforeDrawing();
-		g.fill(Shapes.rectangle(x, y, width, height, corner, cornerRadius));
+		fillShape(Shapes.rectangle(x, y, width, height, corner, cornerRadius));
 		afterDrawing();
 	}
 
@@ -970,7 +1433,7 @@ public class Image {
 		checkNaNAndInfinity(radius, "radius");
 
 		beforeDrawing();
-		g.draw(Shapes.ellipse(centerX, centerY, radius, radius));
+		strokeShape(Shapes.ellipse(centerX, centerY, radius, radius));
 		afterDrawing();
 	}
 
@@ -989,7 +1452,7 @@ public class Image {
 		checkNaNAndInfinity(radius, "radius");
 
 		beforeDrawing();
-		g.fill(Shapes.ellipse(centerX, centerY, radius, radius));
+		fillShape(Shapes.ellipse(centerX, centerY, radius, radius));
 		afterDrawing();
 	}
 
@@ -1012,7 +1475,7 @@ public class Image {
 		checkNaNAndInfinity(verticalRadius, "verticalRadius");
 
 		beforeDrawing();
-		g.draw(Shapes.ellipse(centerX, centerY, horizontalRadius, verticalRadius));
+		strokeShape(Shapes.ellipse(centerX, centerY, horizontalRadius, verticalRadius));
 		afterDrawing();
 	}
 
@@ -1034,7 +1497,7 @@ public class Image {
 		checkNaNAndInfinity(verticalRadius, "verticalRadius");
 
 		beforeDrawing();
-		g.fill(Shapes.ellipse(centerX, centerY, horizontalRadius, verticalRadius));
+		fillShape(Shapes.ellipse(centerX, centerY, horizontalRadius, verticalRadius));
 		afterDrawing();
 	}
 
@@ -1065,7 +1528,7 @@ public class Image {
 		checkNaNAndInfinity(sweepRadians, "sweepRadians");
 
 		beforeDrawing();
-		g.draw(Shapes.arc(centerX, centerY, radius, radius, startRadians, sweepRadians));
+		strokeShape(Shapes.arc(centerX, centerY, radius, radius, startRadians, sweepRadians));
 		afterDrawing();
 	}
 
@@ -1100,7 +1563,7 @@ public class Image {
 		checkNaNAndInfinity(sweepRadians, "sweepRadians");
 
 		beforeDrawing();
-		g.draw(Shapes.arc(centerX, centerY, horizontalRadius, verticalRadius, startRadians, sweepRadians));
+		strokeShape(Shapes.arc(centerX, centerY, horizontalRadius, verticalRadius, startRadians, sweepRadians));
 		afterDrawing();
 	}
 
@@ -1131,7 +1594,7 @@ public class Image {
 		checkNaNAndInfinity(sweepRadians, "sweepRadians");
 
 		beforeDrawing();
-		g.draw(Shapes.pie(centerX, centerY, radius, radius, startRadians, sweepRadians));
+		strokeShape(Shapes.pie(centerX, centerY, radius, radius, startRadians, sweepRadians));
 		afterDrawing();
 	}
 
@@ -1166,7 +1629,7 @@ public class Image {
 		checkNaNAndInfinity(sweepRadians, "sweepRadians");
 
 		beforeDrawing();
-		g.draw(Shapes.pie(centerX, centerY, horizontalRadius, verticalRadius, startRadians, sweepRadians));
+		strokeShape(Shapes.pie(centerX, centerY, horizontalRadius, verticalRadius, startRadians, sweepRadians));
 		afterDrawing();
 	}
 
@@ -1194,7 +1657,7 @@ public class Image {
 		checkNaNAndInfinity(sweepRadians, "sweepRadians");
 
 		beforeDrawing();
-		g.fill(Shapes.pie(centerX, centerY, radius, radius, startRadians, sweepRadians));
+		fillShape(Shapes.pie(centerX, centerY, radius, radius, startRadians, sweepRadians));
 		afterDrawing();
 	}
 
@@ -1226,7 +1689,7 @@ public class Image {
 		checkNaNAndInfinity(sweepRadians, "sweepRadians");
 
 		beforeDrawing();
-		g.fill(Shapes.pie(centerX, centerY, horizontalRadius, verticalRadius, startRadians, sweepRadians));
+		fillShape(Shapes.pie(centerX, centerY, horizontalRadius, verticalRadius, startRadians, sweepRadians));
 		afterDrawing();
 	}
 
@@ -1249,7 +1712,7 @@ public class Image {
 		checkNaNAndInfinity(y3, "y3");
 
 		beforeDrawing();
-		g.draw(Shapes.polygon(x1, y1, x2, y2, x3, y3));
+		strokeShape(Shapes.polygon(x1, y1, x2, y2, x3, y3));
 		afterDrawing();
 	}
 
@@ -1271,7 +1734,7 @@ public class Image {
 		checkNaNAndInfinity(y3, "y3");
 
 		beforeDrawing();
-		g.fill(Shapes.polygon(x1, y1, x2, y2, x3, y3));
+		fillShape(Shapes.polygon(x1, y1, x2, y2, x3, y3));
 		afterDrawing();
 	}
 
@@ -1326,7 +1789,7 @@ public class Image {
 		checkNaNAndInfinity(vertices, "vertices");
 
 		beforeDrawing();
-		g.draw(Shapes.polygon(vertices));
+		strokeShape(Shapes.polygon(vertices));
 		afterDrawing();
 	}
 
@@ -1385,7 +1848,7 @@ public class Image {
 		checkNaNAndInfinity(vertices, "vertices");
 
 		beforeDrawing();
-		g.fill(Shapes.polygon(vertices));
+		fillShape(Shapes.polygon(vertices));
 		afterDrawing();
 	}
 
@@ -1402,7 +1865,7 @@ public class Image {
 		checkNaNAndInfinity(x, "x");
 		checkNaNAndInfinity(y, "y");
 
-		return new Path(this, g, x, y, true);
+		return new Path(this, x, y, true);
 	}
 
 	/**
@@ -1418,12 +1881,15 @@ public class Image {
 		checkNaNAndInfinity(x, "x");
 		checkNaNAndInfinity(y, "y");
 
-		return new Path(this, g, x, y, false);
+		return new Path(this, x, y, false);
 	}
 
 	private void drawImageInternal(double x, double y, double width, double height, java.awt.Image image, Interpolation interpolation) {
+		markDirty(new Rectangle2D.Double((int)x, (int)y, (int)width, (int)height), 0);
 		AWTRenderingHint.Interpolation.from(interpolation).applyTo(g);
+		Object profilerHandle = Profiler.PROFILER.beginDraw();
 		g.drawImage(image, (int)x, (int)y, (int)width, (int)height, null);
+		Profiler.PROFILER.endDraw(profilerHandle, image, width, height);
 	}
 
 	private void drawImageInternal(double x, double y, double width, double height, Image image, Interpolation interpolation) {
@@ -1520,7 +1986,7 @@ public class Image {
 		Matrix2D m = getTransformation();
 		setTransformationToIdentity();
 		setColor(color);
-		g.fill(Shapes.rectangle(0, 0, getWidth(), getHeight(), Corner.SHARP, 0));
+		fillShape(Shapes.rectangle(0, 0, getWidth(), getHeight(), Corner.SHARP, 0));
 		setColor(c);
 		setTransformation(m);
 	}
@@ -1571,6 +2037,112 @@ public class Image {
 		return toBufferedImage(BufferedImageType.INT_ARGB);
 	}
 
+	void strokeShape(Shape shape) {
+		Rectangle2D bounds = shape.getBounds2D();
+		// miter joins of sharp corners reach up to 5 line widths (half the default miter limit) beyond the outline
+		markDirty(bounds, corner == Corner.SHARP ? lineWidth * 5 : lineWidth);
+		Object profilerHandle = Profiler.PROFILER.beginDraw();
+		g.draw(shape);
+		Profiler.PROFILER.endDraw(profilerHandle, shape, bounds.getWidth(), bounds.getHeight());
+	}
+
+	void fillShape(Shape shape) {
+		Rectangle2D bounds = shape.getBounds2D();
+		markDirty(bounds, 0);
+		Object profilerHandle = Profiler.PROFILER.beginDraw();
+		g.fill(shape);
+		Profiler.PROFILER.endDraw(profilerHandle, shape, bounds.getWidth(), bounds.getHeight());
+	}
+
+	private void markDirty(Rectangle2D bounds, double padding) {
+		double minX = Double.POSITIVE_INFINITY;
+		double minY = Double.POSITIVE_INFINITY;
+		double maxX = Double.NEGATIVE_INFINITY;
+		double maxY = Double.NEGATIVE_INFINITY;
+
+		for (int i = 0; i < 4; i++) {
+			double x = (i & 1) == 0 ? bounds.getMinX() - padding : bounds.getMaxX() + padding;
+			double y = (i & 2) == 0 ? bounds.getMinY() - padding : bounds.getMaxY() + padding;
+			double rasterX = deviceTransform.getScaleX() * x + deviceTransform.getShearX() * y + deviceTransform.getTranslateX();
+			double rasterY = deviceTransform.getShearY() * x + deviceTransform.getScaleY() * y + deviceTransform.getTranslateY();
+			minX = Math.min(minX, rasterX);
+			minY = Math.min(minY, rasterY);
+			maxX = Math.max(maxX, rasterX);
+			maxY = Math.max(maxY, rasterY);
+		}
+
+		// one additional pixel on each side for anti-aliasing
+		markRasterDirty((int)Math.floor(minX) - 1, (int)Math.floor(minY) - 1, (int)Math.ceil(maxX) + 1, (int)Math.ceil(maxY) + 1);
+	}
+
+	private void markAllDirty() {
+		markRasterDirty(0, 0, width * xScale, height * yScale);
+	}
+
+	private void markRasterDirty(int minX, int minY, int maxX, int maxY) {
+		minX = Math.max(minX, 0);
+		minY = Math.max(minY, 0);
+		maxX = Math.min(maxX, width * xScale);
+		maxY = Math.min(maxY, height * yScale);
+		if (minX >= maxX || minY >= maxY) return;
+
+		if (isDirty) {
+			dirtyMinX = Math.min(dirtyMinX, minX);
+			dirtyMinY = Math.min(dirtyMinY, minY);
+			dirtyMaxX = Math.max(dirtyMaxX, maxX);
+			dirtyMaxY = Math.max(dirtyMaxY, maxY);
+		}
+		else {
+			isDirty = true;
+			dirtyMinX = minX;
+			dirtyMinY = minY;
+			dirtyMaxX = maxX;
+			dirtyMaxY = maxY;
+		}
+	}
+
+	/*
+		Returns the section of the raster that changed since the last call of this method or null if nothing changed.
+		The section is given in raster coordinates, which includes the DPI upscaling.
+	*/
+	Rectangle takeDirtyRegion() {
+		if (!isDirty) return null;
+
+		isDirty = false;
+		return new Rectangle(dirtyMinX, dirtyMinY, dirtyMaxX - dirtyMinX, dirtyMaxY - dirtyMinY);
+	}
+
+	/*
+		Replaces a section of this image with the same section of the source image.
+		The section is given in raster coordinates. Falls back to drawing the whole image
+		if the source image does not have the same size and DPI upscaling.
+	*/
+	void copyRasterRegion(Image source, Rectangle region) {
+		if (source.width != width || source.height != height || source.xScale != xScale || source.yScale != yScale) {
+			clear();
+			drawImage(0, 0, source);
+			return;
+		}
+
+		markRasterDirty(region.x, region.y, region.x + region.width, region.y + region.height);
+		int[] sourceRaster = source.getRasterData();
+		int[] targetRaster = getRasterData();
+		int rasterWidth = width * xScale;
+
+		for (int y = region.y; y < region.y + region.height; y++) {
+			int index = y * rasterWidth + region.x;
+			System.arraycopy(sourceRaster, index, targetRaster, index, region.width);
+		}
+	}
+
+	int getXScale() {
+		return xScale;
+	}
+
+	int getYScale() {
+		return yScale;
+	}
+
 	/**
 	 * This method is called each time right before a shape is drawn.
 	 * You can override this method to implement custom behavior when drawing in the inheriting class.
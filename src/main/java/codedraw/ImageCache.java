@@ -0,0 +1,307 @@
+package codedraw;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.lang.ref.ReferenceQueue;
+import java.lang.ref.SoftReference;
+import java.net.JarURLConnection;
+import java.net.URISyntaxException;
+import java.net.URL;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.jar.JarEntry;
+
+/**
+ * The ImageCache keeps decoded images in memory, so that loading the same image again does not read and decode the file again.
+ * <pre>{@code
+ * ImageCache cache = new ImageCache(64 * 1024 * 1024);
+ *
+ * while (!cd.isClosed()) {
+ *     cd.drawImage(x, y, cache.fromResource("sprites/player.png"));
+ *     cd.show(16);
+ * }
+ * }</pre>
+ * Each call returns a new copy of the cached image, therefore drawing on a returned image does not change the cache.
+ * Copying the pixels of a cached image is a lot faster than decoding the file.
+ * <br><br>
+ * The size of the cache is limited by the memory the pixels of the cached images take up, 4 bytes per pixel.
+ * When the limit is reached, the images that have not been used for the longest time are removed first.
+ * Cached images are also removed when the garbage collector runs low on memory.
+ * Files and resources are loaded again when they have been modified since they were cached.
+ * Images from the internet are not checked for modifications.
+ * <br><br>
+ * An ImageCache can be used by multiple threads at the same time.
+ */
+public class ImageCache {
+	/**
+	 * Creates an empty cache.
+	 * @param maxBytes the maximum number of bytes the pixels of all cached images can take up together.
+	 */
+	public ImageCache(long maxBytes) {
+		if (maxBytes < 1) throw createParameterMustBeGreaterThanZeroException("maxBytes");
+
+		this.maxBytes = maxBytes;
+	}
+
+	private final long maxBytes;
+	private final LinkedHashMap<String, Entry> entries = new LinkedHashMap<>(16, 0.75f, true);
+	private final ReferenceQueue<int[]> clearedPixels = new ReferenceQueue<>();
+	private long sizeInBytes = 0;
+	private long hits = 0;
+	private long misses = 0;
+	private long evictions = 0;
+
+	/**
+	 * Loads an image from the file system, or returns a copy of it if it has already been loaded.
+	 * See {@link Image#fromFile(String)} for details.
+	 * @param pathToImage The path to the image file.
+	 * @return An image.
+	 */
+	public Image fromFile(String pathToImage) {
+		if (pathToImage == null) throw createParameterNullException("pathToImage");
+
+		File file = new File(pathToImage);
+		String key = "file:" + file.getAbsolutePath();
+		long version = file.lastModified() * 31 + file.length();
+
+		Image cached = get(key, version);
+		if (cached != null) return cached;
+
+		return put(key, version, Image.fromFile(pathToImage));
+	}
+
+	/**
+	 * Loads an image from the resource folder, or returns a copy of it if it has already been loaded.
+	 * See {@link Image#fromResource(String)} for details.
+	 * @param resourceName Path to the resource from the root of the resource folder.
+	 * @return An image.
+	 */
+	public Image fromResource(String resourceName) {
+		if (resourceName == null) throw createParameterNullException("resourceName");
+
+		ClassLoader classLoader = Thread.currentThread().getContextClassLoader();
+		URL url = classLoader == null ? null : classLoader.getResource(resourceName);
+		if (url == null) {
+			// Image.fromResource throws the appropriate exception
+			return Image.fromResource(resourceName);
+		}
+
+		String key = "resource:" + url;
+		long version = lastModified(url);
+
+		Image cached = get(key, version);
+		if (cached != null) return cached;
+
+		return put(key, version, Image.fromResource(resourceName));
+	}
+
+	/**
+	 * Loads an image from the internet, or returns a copy of it if it has already been loaded.
+	 * Once cached, the image is not downloaded again even if it has changed on the server.
+	 * See {@link Image#fromUrl(String)} for details.
+	 * @param url Link to the image file.
+	 * @return An image.
+	 */
+	public Image fromUrl(String url) {
+		if (url == null) throw createParameterNullException("url");
+
+		String key = "url:" + url;
+
+		Image cached = get(key, 0);
+		if (cached != null) return cached;
+
+		return put(key, 0, Image.fromUrl(url));
+	}
+
+	/**
+	 * The number of times an image was found in the cache.
+	 * @return the number of hits.
+	 */
+	public synchronized long getHits() {
+		return hits;
+	}
+
+	/**
+	 * The number of times an image had to be loaded, because it was not in the cache or had been modified.
+	 * @return the number of misses.
+	 */
+	public synchronized long getMisses() {
+		return misses;
+	}
+
+	/**
+	 * The number of images that have been removed from the cache to make room for other images
+	 * or because the garbage collector ran low on memory.
+	 * @return the number of evictions.
+	 */
+	public synchronized long getEvictions() {
+		return evictions;
+	}
+
+	/**
+	 * The number of images currently in the cache.
+	 * @return the number of images.
+	 */
+	public synchronized int getImageCount() {
+		return entries.size();
+	}
+
+	/**
+	 * The number of bytes the pixels of all cached images currently take up.
+	 * @return the size in bytes.
+	 */
+	public synchronized long getSizeInBytes() {
+		return sizeInBytes;
+	}
+
+	/**
+	 * The maximum number of bytes the pixels of all cached images can take up.
+	 * @return the maximum size in bytes.
+	 */
+	public long getMaxBytes() {
+		return maxBytes;
+	}
+
+	/**
+	 * Removes all images from the cache. The hits, misses and evictions are not reset.
+	 */
+	public synchronized void clear() {
+		entries.clear();
+		sizeInBytes = 0;
+	}
+
+	@Override
+	public synchronized String toString() {
+		return "ImageCache " + entries.size() + " images, " + sizeInBytes + " of " + maxBytes + " bytes, " + hits + " hits, " + misses + " misses, " + evictions + " evictions";
+	}
+
+	private synchronized Image get(String key, long version) {
+		removeClearedEntries();
+
+		Entry entry = entries.get(key);
+		int[] pixels = entry == null ? null : entry.pixels.get();
+
+		if (pixels == null || entry.version != version) {
+			if (entry != null) {
+				remove(key, entry);
+				if (pixels == null) evictions++;
+			}
+			misses++;
+			return null;
+		}
+
+		hits++;
+		Image copy = new Image(entry.width, entry.height, Palette.TRANSPARENT);
+		copy.setPixels(0, 0, entry.width, entry.height, pixels);
+		return copy;
+	}
+
+	// The image is decoded without holding the lock, so that other threads are not blocked while a file is read.
+	private Image put(String key, long version, Image image) {
+		int width = image.getWidth();
+		int height = image.getHeight();
+		long bytes = 4L * width * height;
+		if (bytes > maxBytes) return image;
+
+		int[] pixels = new int[width * height];
+		image.getPixels(0, 0, width, height, pixels);
+
+		synchronized (this) {
+			Entry previous = entries.get(key);
+			if (previous != null) {
+				remove(key, previous);
+			}
+
+			removeClearedEntries();
+			entries.put(key, new Entry(new PixelReference(key, pixels, clearedPixels), width, height, version));
+			sizeInBytes += bytes;
+			evictLeastRecentlyUsed();
+		}
+		return image;
+	}
+
+	private void evictLeastRecentlyUsed() {
+		Iterator<Map.Entry<String, Entry>> iterator = entries.entrySet().iterator();
+		while (sizeInBytes > maxBytes && iterator.hasNext()) {
+			Entry entry = iterator.next().getValue();
+			iterator.remove();
+			sizeInBytes -= entry.getSizeInBytes();
+			evictions++;
+		}
+	}
+
+	// Entries whose pixels have been collected by the garbage collector no longer count towards the size of the cache.
+	private void removeClearedEntries() {
+		PixelReference reference;
+		while ((reference = (PixelReference)clearedPixels.poll()) != null) {
+			Entry entry = entries.get(reference.key);
+			if (entry != null && entry.pixels == reference) {
+				remove(reference.key, entry);
+				evictions++;
+			}
+		}
+	}
+
+	private void remove(String key, Entry entry) {
+		entries.remove(key);
+		sizeInBytes -= entry.getSizeInBytes();
+	}
+
+	// Resources are either files, when running from a directory of class files, or entries of a jar file.
+	private static long lastModified(URL url) {
+		try {
+			if ("file".equals(url.getProtocol())) {
+				File file = new File(url.toURI());
+				return file.lastModified() * 31 + file.length();
+			}
+			if ("jar".equals(url.getProtocol())) {
+				JarEntry entry = ((JarURLConnection)url.openConnection()).getJarEntry();
+				return entry == null ? 0 : entry.getTime() * 31 + entry.getSize();
+			}
+			return 0;
+		}
+		catch (IOException e) {
+			throw new UncheckedIOException(e.getMessage(), e);
+		}
+		catch (URISyntaxException e) {
+			return 0;
+		}
+	}
+
+	private static class PixelReference extends SoftReference<int[]> {
+		public PixelReference(String key, int[] pixels, ReferenceQueue<int[]> queue) {
+			super(pixels, queue);
+			this.key = key;
+		}
+
+		private final String key;
+	}
+
+	private static class Entry {
+		public Entry(PixelReference pixels, int width, int height, long version) {
+			this.pixels = pixels;
+			this.width = width;
+			this.height = height;
+			this.version = version;
+		}
+
+		private final PixelReference pixels;
+		private final int width;
+		private final int height;
+		private final long version;
+
+		public long getSizeInBytes() {
+			return 4L * width * height;
+		}
+	}
+
+	private static IllegalArgumentException createParameterNullException(String parameterName) {
+		return new IllegalArgumentException("The parameter " + parameterName + " cannot be null.");
+	}
+
+	private static IllegalArgumentException createParameterMustBeGreaterThanZeroException(String parameterName) {
+		return new IllegalArgumentException("The parameter " + parameterName + " must be greater than zero.");
+	}
+}
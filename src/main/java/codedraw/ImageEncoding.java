@@ -0,0 +1,52 @@
+package codedraw;
+
+import javax.imageio.ImageIO;
+import java.awt.image.*;
+import java.io.BufferedOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+
+/*
+ * Encodes pixels that have been copied out of an Image with getPixels,
+ * so that the encoding can happen on another thread while the image is drawn on again.
+ */
+class ImageEncoding {
+	private ImageEncoding() { }
+
+	private static final int[] RGB_MASKS = {0xFF0000, 0xFF00, 0xFF};
+
+	// Image.save draws the image in front of a white background, therefore the copied pixels are treated the same way.
+	public static void flattenOntoWhite(int[] argb, int length) {
+		for (int i = 0; i < length; i++) {
+			int pixel = argb[i];
+			int alpha = pixel >>> 24;
+			if (alpha != 0xFF) {
+				int background = 0xFF - alpha;
+				int r = ((pixel >> 16 & 0xFF) * alpha + 0xFF * background + 0x7F) / 0xFF;
+				int g = ((pixel >> 8 & 0xFF) * alpha + 0xFF * background + 0x7F) / 0xFF;
+				int b = ((pixel & 0xFF) * alpha + 0xFF * background + 0x7F) / 0xFF;
+				argb[i] = 0xFF000000 | r << 16 | g << 8 | b;
+			}
+		}
+	}
+
+	// Wraps opaque pixels in a BufferedImage of type INT_RGB without copying them.
+	public static BufferedImage toBufferedImage(int[] argb, int width, int height) {
+		DataBufferInt dataBuffer = new DataBufferInt(argb, width * height);
+		WritableRaster raster = Raster.createPackedRaster(dataBuffer, width, height, width, RGB_MASKS, null);
+		return new BufferedImage(new DirectColorModel(24, RGB_MASKS[0], RGB_MASKS[1], RGB_MASKS[2]), raster, false, null);
+	}
+
+	public static void write(int[] argb, int width, int height, ImageFormat format, String pathToImage, boolean isParallel) throws IOException {
+		if (format == ImageFormat.PNG) {
+			try (OutputStream out = new BufferedOutputStream(new FileOutputStream(pathToImage))) {
+				PngEncoder.write(argb, width, height, out, isParallel);
+			}
+		}
+		else if (!ImageIO.write(toBufferedImage(argb, width, height), format.getFormatName(), new File(pathToImage))) {
+			throw new RuntimeException("Could not save image, because no appropriate writer has been found in ImageIO.");
+		}
+	}
+}
@@ -0,0 +1,149 @@
+package codedraw;
+
+import java.awt.event.KeyEvent;
+import java.awt.event.MouseEvent;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * The InputState contains the current state of the keyboard and the mouse.
+ * Compared to the {@link EventScanner} no events have to be consumed to find out whether a key is held down
+ * or where the mouse currently is, the InputState can simply be queried whenever the information is needed.
+ * <pre>{@code
+ * CodeDraw cd = new CodeDraw();
+ * InputState input = cd.getInputState();
+ *
+ * while (!cd.isClosed()) {
+ *     if (input.isKeyDown(Key.SPACE)) {
+ *         cd.fillCircle(input.getMouseX(), input.getMouseY(), 10);
+ *     }
+ *     cd.show(16);
+ * }
+ * }</pre>
+ * The InputState is updated as soon as the window receives the input and can safely be queried from any thread.
+ * Querying the InputState never allocates memory.
+ * When the window loses focus all keys and mouse buttons are considered released.
+ */
+public class InputState {
+	InputState() { }
+
+	private static final Key[] KEYS = Key.values();
+	private static final MouseButton[] MOUSE_BUTTONS = MouseButton.values();
+
+	private final AtomicLongArray keysDown = new AtomicLongArray((KEYS.length + 63) / 64);
+	private volatile int mouseButtonsDown = 0;
+	// x in the upper and y in the lower 32 bits, so that both are always read together
+	private volatile long mousePosition = 0;
+
+	/**
+	 * Whether the given key is currently held down.
+	 * @param key any key.
+	 * @return true if the key is held down, otherwise false.
+	 */
+	public boolean isKeyDown(Key key) {
+		if (key == null) throw createParameterNullException("key");
+
+		int index = key.ordinal();
+		return (keysDown.get(index >>> 6) & 1L << index) != 0;
+	}
+
+	/**
+	 * Whether the given mouse button is currently held down.
+	 * @param mouseButton any mouse button.
+	 * @return true if the mouse button is held down, otherwise false.
+	 */
+	public boolean isMouseButtonDown(MouseButton mouseButton) {
+		if (mouseButton == null) throw createParameterNullException("mouseButton");
+
+		return (mouseButtonsDown & 1 << mouseButton.ordinal()) != 0;
+	}
+
+	/**
+	 * Gets all mouse buttons that are currently held down as a bit mask.
+	 * The bit at the index {@link MouseButton#ordinal()} is set when the corresponding mouse button is held down.
+	 * For example, the mask 0b101 means that the {@link MouseButton#LEFT} and the {@link MouseButton#RIGHT} mouse buttons are held down.
+	 * @return the mouse button mask.
+	 */
+	public int getMouseButtonMask() {
+		return mouseButtonsDown;
+	}
+
+	/**
+	 * Gets the distance in pixel from the left side of the canvas to the last known position of the mouse.
+	 * @return the distance in pixel.
+	 */
+	public int getMouseX() {
+		return (int)(mousePosition >> 32);
+	}
+
+	/**
+	 * Gets the distance in pixel from the top side of the canvas to the last known position of the mouse.
+	 * @return the distance in pixel.
+	 */
+	public int getMouseY() {
+		return (int)mousePosition;
+	}
+
+	/**
+	 * Gets the last known position of the mouse.
+	 * Compared to calling {@link #getMouseX()} and {@link #getMouseY()} the x and y coordinate
+	 * are guaranteed to belong to the same mouse position.
+	 * This method allocates a new {@link Point2D} each time it is called.
+	 * @return the position of the mouse relative to the top left corner of the canvas.
+	 */
+	public Point2D getMousePosition() {
+		long position = mousePosition;
+		return new Point2D((int)(position >> 32), (int)position);
+	}
+
+	/*
+	 * The methods below are only called from the event dispatch thread,
+	 * therefore the read-modify-write operations on the volatile fields cannot race.
+	 */
+
+	void keyDown(KeyEvent e) {
+		int index = Key.getKeyFromKeyCode(e.getKeyCode()).ordinal();
+		long bit = 1L << index;
+		int word = index >>> 6;
+		keysDown.set(word, keysDown.get(word) | bit);
+	}
+
+	void keyUp(KeyEvent e) {
+		int index = Key.getKeyFromKeyCode(e.getKeyCode()).ordinal();
+		long bit = 1L << index;
+		int word = index >>> 6;
+		keysDown.set(word, keysDown.get(word) & ~bit);
+	}
+
+	void mouseMoved(MouseEvent e) {
+		mousePosition = (long)e.getX() << 32 | e.getY() & 0xFFFFFFFFL;
+	}
+
+	void mouseDown(MouseEvent e) {
+		mouseMoved(e);
+		if (isKnownMouseButton(e)) {
+			mouseButtonsDown = mouseButtonsDown | 1 << e.getButton() - 1;
+		}
+	}
+
+	void mouseUp(MouseEvent e) {
+		mouseMoved(e);
+		if (isKnownMouseButton(e)) {
+			mouseButtonsDown = mouseButtonsDown & ~(1 << e.getButton() - 1);
+		}
+	}
+
+	void releaseAll() {
+		for (int i = 0; i < keysDown.length(); i++) {
+			keysDown.set(i, 0);
+		}
+		mouseButtonsDown = 0;
+	}
+
+	private static boolean isKnownMouseButton(MouseEvent e) {
+		return 1 <= e.getButton() && e.getButton() <= MOUSE_BUTTONS.length;
+	}
+
+	private static IllegalArgumentException createParameterNullException(String parameterName) {
+		return new IllegalArgumentException("The parameter " + parameterName + " cannot be null.");
+	}
+}
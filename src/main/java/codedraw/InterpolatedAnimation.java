@@ -0,0 +1,53 @@
+package codedraw;
+
+/**
+ * An InterpolatedAnimation can draw smooth motion even when the simulation runs at a lower rate than the frames are drawn.
+ * Pass an instance to {@link CodeDraw#run(Animation)}, {@link BorderlessWindow#run(Animation)} or {@link FullScreen#run(Animation)}
+ * like any other {@link Animation}.
+ * <br><br>
+ * Instead of {@link Animation#draw(Image)} the method {@link #draw(Image, double)} is called for each frame.
+ * The alpha parameter is the fraction of time that has passed since the last call to {@link #simulate()}
+ * until the next call to {@link #simulate()} is due.
+ * Keep both the previous and the current state in the simulation
+ * and draw the state in between them according to alpha.
+ * <pre>{@code
+ * class Ball implements InterpolatedAnimation {
+ *     private double previousX = 0;
+ *     private double x = 0;
+ *
+ *     public void simulate() {
+ *         previousX = x;
+ *         x += 20;
+ *     }
+ *
+ *     public void draw(Image canvas, double alpha) {
+ *         canvas.clear();
+ *         canvas.fillCircle(previousX + (x - previousX) * alpha, 300, 10);
+ *     }
+ * }
+ *
+ * // physics at 30 simulations per second, drawn at 144 frames per second
+ * CodeDraw.run(new Ball(), 600, 600, 144, 30);
+ * }</pre>
+ * This way the drawn state lags at most one simulation step behind the simulation.
+ */
+public interface InterpolatedAnimation extends Animation {
+	/**
+	 * This method is called in regular intervals to draw onto the canvas.
+	 * @param canvas the canvas to draw on.
+	 * @param alpha a value between 0 and 1. 0 means that {@link #simulate()} has just been called,
+	 *              1 means that the next call to {@link #simulate()} is due.
+	 */
+	void draw(Image canvas, double alpha);
+
+	/**
+	 * Draws the current state by calling {@link #draw(Image, double)} with an alpha of 1.
+	 * This method is only used when the animation is not run directly,
+	 * for example when it is combined with other animations through {@link Animation#combine(Animation...)}.
+	 * @param canvas the canvas to draw on.
+	 */
+	@Override
+	default void draw(Image canvas) {
+		draw(canvas, 1);
+	}
+}
@@ -1,6 +1,8 @@
 package codedraw;
 
 import java.awt.event.MouseEvent;
+import java.util.Collections;
+import java.util.List;
 
 /**
  * This argument is given continuously while the mouse is being moved.
@@ -11,6 +13,7 @@ public class MouseMoveEvent extends Event {
 	}
 
 	private final MouseEvent e;
+	private List<MouseMoveEvent> coalescedEvents = null;
 
 	/**
 	 * Gets the distance in pixel from the left side of the canvas to the mouse.
@@ -28,6 +31,21 @@ public class MouseMoveEvent extends Event {
 		return e.getY();
 	}
 
+	/**
+	 * When mouse move coalescing is enabled in the {@link EventScanner} consecutive mouse move events are
+	 * merged into the last one of them. This method returns all merged events in the order they happened,
+	 * which is the path the mouse took. The last element is always this event.
+	 * Without coalescing the returned list only contains this event.
+	 * @return an unmodifiable list of mouse move events.
+	 */
+	public List<MouseMoveEvent> getCoalescedEvents() {
+		return coalescedEvents == null ? Collections.singletonList(this) : coalescedEvents;
+	}
+
+	void setCoalescedEvents(List<MouseMoveEvent> coalescedEvents) {
+		this.coalescedEvents = Collections.unmodifiableList(coalescedEvents);
+	}
+
 	@Override
 	public String toString() {
 		return "[Move: (" + getX() + ", " + getY() + ")]";
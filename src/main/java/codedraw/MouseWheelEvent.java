@@ -6,19 +6,27 @@ package codedraw;
 public class MouseWheelEvent extends Event {
 	MouseWheelEvent(java.awt.event.MouseWheelEvent e) {
 		this.e = e;
+		this.wheelRotation = e.getPreciseWheelRotation();
 	}
 
 	private final java.awt.event.MouseWheelEvent e;
+	private double wheelRotation;
 
 	/**
 	 * Returns the amount of wheel rotation. One rotation is one click on the mouse.
 	 * For high resolution scrolling there are fractional rotations.
 	 * Positive values are returned for scrolling towards the user,
 	 * negative values when scrolling away from the user.
+	 * When mouse wheel coalescing is enabled in the {@link EventScanner}
+	 * this is the sum of the rotations of all merged events.
 	 * @return the wheel rotation.
 	 */
 	public double getWheelRotation() {
-		return e.getPreciseWheelRotation();
+		return wheelRotation;
+	}
+
+	void addWheelRotation(double rotation) {
+		wheelRotation += rotation;
 	}
 
 	@Override
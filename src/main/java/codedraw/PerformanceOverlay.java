@@ -0,0 +1,68 @@
+package codedraw;
+
+import java.awt.*;
+
+/*
+	Paints the recent frame times as a bar graph together with their percentiles and the jitter of the frame schedule.
+	The overlay is painted over the displayed buffer and never touches the image of the user.
+*/
+class PerformanceOverlay {
+	private PerformanceOverlay() { }
+
+	public static final Rectangle BOUNDS = new Rectangle(4, 4, 180, 78);
+
+	private static final int PADDING = 4;
+	private static final int TEXT_HEIGHT = 14;
+	private static final double FRAME_60_NANOSECONDS = 1_000_000_000D / 60;
+	// the top of the graph is 3 frames at 60 frames per second
+	private static final double GRAPH_NANOSECONDS = 3 * FRAME_60_NANOSECONDS;
+
+	private static final Color BACKGROUND = new Color(0, 0, 0, 170);
+	private static final Color ON_TIME = new Color(80, 220, 100);
+	private static final Color LATE = new Color(240, 80, 60);
+	private static final Color REFERENCE = new Color(255, 255, 255, 120);
+	private static final Font FONT = new Font(Font.MONOSPACED, Font.PLAIN, 11);
+
+	public static void paint(Graphics graphics, FrameStats stats) {
+		Graphics2D g = (Graphics2D)graphics.create();
+		try {
+			g.setColor(BACKGROUND);
+			g.fillRect(BOUNDS.x, BOUNDS.y, BOUNDS.width, BOUNDS.height);
+
+			int graphX = BOUNDS.x + PADDING;
+			int graphBottom = BOUNDS.y + BOUNDS.height - PADDING;
+			int graphWidth = BOUNDS.width - 2 * PADDING;
+			int graphHeight = BOUNDS.height - 2 * PADDING - 2 * TEXT_HEIGHT;
+
+			long[] frames = stats.copyRecent(FramePhase.FRAME);
+			int barCount = Math.min(frames.length, graphWidth);
+			for (int i = 0; i < barCount; i++) {
+				long frame = frames[frames.length - barCount + i];
+				int barHeight = (int)Math.min(graphHeight, Math.ceil(frame / GRAPH_NANOSECONDS * graphHeight));
+				g.setColor(frame <= FRAME_60_NANOSECONDS * 1.05 ? ON_TIME : LATE);
+				g.fillRect(graphX + graphWidth - barCount + i, graphBottom - barHeight, 1, barHeight);
+			}
+
+			int referenceY = graphBottom - (int)(FRAME_60_NANOSECONDS / GRAPH_NANOSECONDS * graphHeight);
+			g.setColor(REFERENCE);
+			g.drawLine(graphX, referenceY, graphX + graphWidth, referenceY);
+
+			g.setRenderingHint(RenderingHints.KEY_TEXT_ANTIALIASING, RenderingHints.VALUE_TEXT_ANTIALIAS_ON);
+			g.setFont(FONT);
+			g.setColor(Color.WHITE);
+			g.drawString(String.format("%.1f/%.1f/%.1fms drop %d",
+				stats.getP50Nanoseconds(FramePhase.FRAME) / 1e6,
+				stats.getP95Nanoseconds(FramePhase.FRAME) / 1e6,
+				stats.getP99Nanoseconds(FramePhase.FRAME) / 1e6,
+				stats.getDroppedFrames()
+			), graphX, BOUNDS.y + PADDING + TEXT_HEIGHT - 3);
+			g.drawString(String.format("jitter %.2f/%.2fms",
+				stats.getP50Nanoseconds(FramePhase.JITTER) / 1e6,
+				stats.getP99Nanoseconds(FramePhase.JITTER) / 1e6
+			), graphX, BOUNDS.y + PADDING + 2 * TEXT_HEIGHT - 3);
+		}
+		finally {
+			g.dispose();
+		}
+	}
+}
@@ -0,0 +1,109 @@
+package codedraw;
+
+import java.nio.IntBuffer;
+
+/**
+ * Gives direct access to the pixels of an {@link Image} without copying them.
+ * A PixelAccessor is created by calling {@link Image#lockPixels()}
+ * and must be closed once editing is done, so that the image is notified of the changes.
+ * <pre>{@code
+ * try (PixelAccessor pixels = image.lockPixels()) {
+ *     for (int y = 0; y < pixels.getHeight(); y++) {
+ *         for (int x = 0; x < pixels.getWidth(); x++) {
+ *             pixels.set(x, y, 0xFF000000 | (x ^ y) & 0xFF);
+ *         }
+ *     }
+ * }
+ * }</pre>
+ * The pixels are stored as ARGB integers row by row.
+ * DPI aware images such as {@link CodeDraw} have a higher resolution than their width and height suggest,
+ * therefore {@link #getWidth()} and {@link #getHeight()} of the accessor might be larger than those of the image.
+ * Changes are written directly into the image and ignore any transformation or drawing property of the image.
+ */
+public class PixelAccessor implements AutoCloseable {
+	PixelAccessor(Image image, int[] pixels, int width, int height) {
+		this.image = image;
+		this.pixels = pixels;
+		this.width = width;
+		this.height = height;
+	}
+
+	private final Image image;
+	private final int[] pixels;
+	private final int width;
+	private final int height;
+	private boolean isClosed = false;
+
+	/**
+	 * The number of pixels in a single row of the underlying raster.
+	 * @return the width of the raster in pixel.
+	 */
+	public int getWidth() {
+		return width;
+	}
+
+	/**
+	 * The number of rows of the underlying raster.
+	 * @return the height of the raster in pixel.
+	 */
+	public int getHeight() {
+		return height;
+	}
+
+	/**
+	 * Gets the color of a single pixel of the raster.
+	 * @param x The distance in pixel from the left side of the raster.
+	 * @param y The distance in pixel from the top side of the raster.
+	 * @return the color as an ARGB integer.
+	 */
+	public int get(int x, int y) {
+		checkIsClosed();
+		checkBounds(x, y);
+		return pixels[y * width + x];
+	}
+
+	/**
+	 * Sets the color of a single pixel of the raster.
+	 * @param x The distance in pixel from the left side of the raster.
+	 * @param y The distance in pixel from the top side of the raster.
+	 * @param argb the color as an ARGB integer.
+	 */
+	public void set(int x, int y, int argb) {
+		checkIsClosed();
+		checkBounds(x, y);
+		pixels[y * width + x] = argb;
+	}
+
+	/**
+	 * Wraps the raster in an {@link IntBuffer} without copying it.
+	 * The pixel (x, y) is located at the index y * {@link #getWidth()} + x.
+	 * The buffer must not be used after this accessor has been closed.
+	 * @return a buffer backed by the pixels of the image.
+	 */
+	public IntBuffer getBuffer() {
+		checkIsClosed();
+		return IntBuffer.wrap(pixels);
+	}
+
+	/**
+	 * Releases the lock on the image and notifies the image that its pixels have changed.
+	 * Afterwards the image can be locked again.
+	 * Calling close multiple times has no effect.
+	 */
+	@Override
+	public void close() {
+		if (!isClosed) {
+			isClosed = true;
+			image.unlockPixels();
+		}
+	}
+
+	private void checkBounds(int x, int y) {
+		if (x < 0 || width <= x) throw new IndexOutOfBoundsException("The parameter x must be greater or equal to 0 and smaller than " + width + " but was " + x + ".");
+		if (y < 0 || height <= y) throw new IndexOutOfBoundsException("The parameter y must be greater or equal to 0 and smaller than " + height + " but was " + y + ".");
+	}
+
+	private void checkIsClosed() {
+		if (isClosed) throw new IllegalStateException("This PixelAccessor has already been closed and can no longer be used.");
+	}
+}
@@ -0,0 +1,23 @@
+package codedraw;
+
+/**
+ * A function that calculates the new color of a single pixel.
+ * It is applied to every pixel of an image by calling {@link Image#shade(PixelShader)}.
+ * <pre>{@code
+ * image.shade((x, y, argb) -> 0xFF000000 | (x * 255 / image.getWidth()) << 16);
+ * }</pre>
+ * Since pixels might be calculated in parallel on multiple threads,
+ * the shader must not depend on the order in which pixels are calculated
+ * and must not modify shared state without synchronization.
+ */
+@FunctionalInterface
+public interface PixelShader {
+	/**
+	 * Calculates the new color of the pixel at the specified location.
+	 * @param x The distance in pixel from the left side of the image.
+	 * @param y The distance in pixel from the top side of the image.
+	 * @param argb The current color of the pixel as an ARGB integer.
+	 * @return the new color of the pixel as an ARGB integer.
+	 */
+	int shade(int x, int y, int argb);
+}
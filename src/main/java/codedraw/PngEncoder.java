@@ -0,0 +1,180 @@
+package codedraw;
+
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.zip.Adler32;
+import java.util.zip.CRC32;
+import java.util.zip.Deflater;
+
+/*
+ * Encodes opaque ARGB pixels as an 8 bit RGB PNG.
+ *
+ * The rows are split into chunks that are deflated independently of each other, in parallel if requested.
+ * Every chunk except the last one ends with a sync flush, so that the compressed chunks
+ * can simply be concatenated into a single deflate stream.
+ * To compress almost as well as a single deflater would, each chunk uses the last 32 KB of the rows
+ * before it as a preset dictionary. Those rows are converted a second time by the chunk instead of waiting for the previous chunk.
+ * The Adler32 checksums of the chunks are combined into the checksum of the whole zlib stream afterwards.
+ */
+class PngEncoder {
+	private PngEncoder() { }
+
+	private static final byte[] SIGNATURE = {(byte)0x89, 'P', 'N', 'G', '\r', '\n', 0x1A, '\n'};
+	private static final int CHUNK_SIZE = 128 * 1024;
+	private static final int WINDOW_SIZE = 32 * 1024;
+	private static final int BYTES_PER_PIXEL = 3;
+	private static final int ADLER_BASE = 65521;
+	// the same filter type and compression level as the PNG writer of ImageIO, so that the files have a similar size
+	private static final int COMPRESSION_LEVEL = 4;
+
+	public static void write(int[] argb, int width, int height, OutputStream out, boolean isParallel) throws IOException {
+		int rowLength = 1 + width * BYTES_PER_PIXEL;
+		int rowsPerChunk = Math.max(1, CHUNK_SIZE / rowLength);
+		int chunkCount = (height + rowsPerChunk - 1) / rowsPerChunk;
+
+		byte[][] compressed = new byte[chunkCount][];
+		int[] compressedLengths = new int[chunkCount];
+		long[] checksums = new long[chunkCount];
+
+		RowBands.forEach(chunkCount, isParallel, (startChunk, endChunk) -> {
+			for (int chunk = startChunk; chunk < endChunk; chunk++) {
+				int startRow = chunk * rowsPerChunk;
+				int endRow = Math.min(height, startRow + rowsPerChunk);
+				deflateRows(argb, width, height, startRow, endRow, chunk, compressed, compressedLengths, checksums);
+			}
+		});
+
+		long checksum = 1;
+		for (int chunk = 0; chunk < chunkCount; chunk++) {
+			int startRow = chunk * rowsPerChunk;
+			int endRow = Math.min(height, startRow + rowsPerChunk);
+			checksum = combineAdler32(checksum, checksums[chunk], (long)(endRow - startRow) * rowLength);
+		}
+
+		DataOutputStream data = new DataOutputStream(out);
+		data.write(SIGNATURE);
+
+		byte[] header = new byte[13];
+		writeInt(header, 0, width);
+		writeInt(header, 4, height);
+		header[8] = 8;
+		header[9] = 2;
+		writeChunk(data, "IHDR", header, header.length);
+
+		writeChunk(data, "IDAT", new byte[] {0x78, 0x5E}, 2);
+		for (int chunk = 0; chunk < chunkCount; chunk++) {
+			writeChunk(data, "IDAT", compressed[chunk], compressedLengths[chunk]);
+		}
+		byte[] trailer = new byte[4];
+		writeInt(trailer, 0, (int)checksum);
+		writeChunk(data, "IDAT", trailer, trailer.length);
+
+		writeChunk(data, "IEND", new byte[0], 0);
+		data.flush();
+	}
+
+	private static void deflateRows(int[] argb, int width, int height, int startRow, int endRow, int chunk, byte[][] compressed, int[] compressedLengths, long[] checksums) {
+		int rowLength = 1 + width * BYTES_PER_PIXEL;
+		int dictionaryRows = Math.min(startRow, (WINDOW_SIZE + rowLength - 1) / rowLength);
+		int firstRow = startRow - dictionaryRows;
+
+		byte[] rows = new byte[(endRow - firstRow) * rowLength];
+		for (int y = firstRow; y < endRow; y++) {
+			writeRow(argb, width, y, rows, (y - firstRow) * rowLength);
+		}
+
+		int inputOffset = dictionaryRows * rowLength;
+		int inputLength = rows.length - inputOffset;
+
+		Adler32 adler = new Adler32();
+		adler.update(rows, inputOffset, inputLength);
+		checksums[chunk] = adler.getValue();
+
+		Deflater deflater = new Deflater(COMPRESSION_LEVEL, true);
+		try {
+			if (dictionaryRows > 0) {
+				int dictionaryLength = Math.min(WINDOW_SIZE, inputOffset);
+				deflater.setDictionary(rows, inputOffset - dictionaryLength, dictionaryLength);
+			}
+			deflater.setInput(rows, inputOffset, inputLength);
+
+			boolean isLastChunk = endRow == height;
+			if (isLastChunk) {
+				deflater.finish();
+			}
+
+			byte[] output = new byte[inputLength / 2 + 64];
+			int length = 0;
+			while (true) {
+				if (length == output.length) {
+					output = Arrays.copyOf(output, output.length * 2);
+				}
+				int space = output.length - length;
+				if (isLastChunk) {
+					length += deflater.deflate(output, length, space);
+					if (deflater.finished()) break;
+				}
+				else {
+					int written = deflater.deflate(output, length, space, Deflater.SYNC_FLUSH);
+					length += written;
+					// the flush is complete once the deflater no longer fills all the space it was given
+					if (written < space) break;
+				}
+			}
+
+			compressed[chunk] = output;
+			compressedLengths[chunk] = length;
+		}
+		finally {
+			deflater.end();
+		}
+	}
+
+	// Same as adler32_combine of zlib: the checksum of the concatenation of two sequences from the checksums of both.
+	static long combineAdler32(long adler1, long adler2, long length2) {
+		long remainder = length2 % ADLER_BASE;
+		long sum1 = adler1 & 0xFFFF;
+		long sum2 = remainder * sum1 % ADLER_BASE;
+		sum1 += (adler2 & 0xFFFF) + ADLER_BASE - 1;
+		sum2 += (adler1 >>> 16 & 0xFFFF) + (adler2 >>> 16 & 0xFFFF) + ADLER_BASE - remainder;
+		if (sum1 >= ADLER_BASE) sum1 -= ADLER_BASE;
+		if (sum1 >= ADLER_BASE) sum1 -= ADLER_BASE;
+		if (sum2 >= (long)ADLER_BASE << 1) sum2 -= (long)ADLER_BASE << 1;
+		if (sum2 >= ADLER_BASE) sum2 -= ADLER_BASE;
+		return sum1 | sum2 << 16;
+	}
+
+	private static void writeChunk(DataOutputStream out, String type, byte[] data, int length) throws IOException {
+		byte[] typeBytes = type.getBytes(StandardCharsets.US_ASCII);
+		CRC32 crc = new CRC32();
+		crc.update(typeBytes);
+		crc.update(data, 0, length);
+
+		out.writeInt(length);
+		out.write(typeBytes);
+		out.write(data, 0, length);
+		out.writeInt((int)crc.getValue());
+	}
+
+	private static void writeInt(byte[] target, int offset, int value) {
+		target[offset] = (byte)(value >>> 24);
+		target[offset + 1] = (byte)(value >>> 16);
+		target[offset + 2] = (byte)(value >>> 8);
+		target[offset + 3] = (byte)value;
+	}
+
+	// Every row starts with the filter type 0, meaning the bytes of the row are stored as they are.
+	private static void writeRow(int[] argb, int width, int y, byte[] target, int offset) {
+		target[offset++] = 0;
+		int rowStart = y * width;
+		for (int x = 0; x < width; x++) {
+			int pixel = argb[rowStart + x];
+			target[offset++] = (byte)(pixel >> 16);
+			target[offset++] = (byte)(pixel >> 8);
+			target[offset++] = (byte)pixel;
+		}
+	}
+}
@@ -0,0 +1,57 @@
+package codedraw;
+
+/**
+ * Waits until a point in time given by {@link System#nanoTime()}, more precisely than {@link Thread#sleep(long)} alone.
+ * Depending on the operating system, Thread.sleep can wake up a few hundred microseconds or even a few milliseconds late.
+ * PreciseSleep therefore sleeps for most of the wait and only busy waits for the last part.
+ * How long it busy waits is adapted to how late sleeping actually woke up so far, but it never busy waits for more than one millisecond.
+ * <pre>{@code
+ * long nextFrame = System.nanoTime();
+ * while (!cd.isClosed()) {
+ *     nextFrame += 16_666_667;
+ *     cd.show();
+ *     PreciseSleep.until(nextFrame);
+ * }
+ * }</pre>
+ */
+public final class PreciseSleep {
+	private PreciseSleep() { }
+
+	private static final long MAXIMUM_SPIN_NANOSECONDS = 1_000_000;
+	private static final long MINIMUM_SPIN_NANOSECONDS = 20_000;
+
+	// How late Thread.sleep is expected to wake up. Rises immediately when sleeping wakes up later
+	// and falls slowly afterwards, so that a single late wake up does not keep the spin long forever.
+	// Updates from several threads can overwrite each other, which only makes the estimate a little less accurate.
+	private static volatile long expectedOversleep = MAXIMUM_SPIN_NANOSECONDS;
+
+	/**
+	 * Waits until {@link System#nanoTime()} has reached the deadline.
+	 * Returns immediately if the deadline has already passed.
+	 * @param deadline a point in time measured with {@link System#nanoTime()}.
+	 */
+	public static void until(long deadline) {
+		long spinNanoseconds = expectedOversleep;
+		long wakeUpTime = deadline - spinNanoseconds;
+		long sleepNanoseconds = wakeUpTime - System.nanoTime();
+
+		if (sleepNanoseconds > 0) {
+			try {
+				Thread.sleep(sleepNanoseconds / 1_000_000, (int)(sleepNanoseconds % 1_000_000));
+			}
+			catch (InterruptedException e) {
+				throw new RuntimeException(e);
+			}
+			updateExpectedOversleep(spinNanoseconds, System.nanoTime() - wakeUpTime);
+		}
+
+		while (System.nanoTime() - deadline < 0) {
+			Thread.onSpinWait();
+		}
+	}
+
+	private static void updateExpectedOversleep(long expected, long oversleep) {
+		long updated = oversleep > expected ? oversleep : expected - (expected - oversleep) / 16;
+		expectedOversleep = Math.max(MINIMUM_SPIN_NANOSECONDS, Math.min(MAXIMUM_SPIN_NANOSECONDS, updated));
+	}
+}
@@ -0,0 +1,35 @@
+package codedraw;
+
+/**
+ * PresentationMode defines how the canvas is handed over to the window when show is called.
+ * Set it via {@link CodeDraw#setPresentationMode(PresentationMode)},
+ * {@link BorderlessWindow#setPresentationMode(PresentationMode)}, {@link FullScreen#setPresentationMode(PresentationMode)}
+ * or for animations via {@link AnimationOptions#setPresentationMode(PresentationMode)}.
+ */
+public enum PresentationMode {
+	/**
+	 * The canvas is copied into a single buffer which is then displayed by the window.
+	 * While the window is displaying the buffer, calls to show have to wait.
+	 * This is the default.
+	 */
+	SINGLE_BUFFERED,
+	/**
+	 * The canvas is copied into one of two buffers while the window displays the other one.
+	 * Once copying is done the two buffers switch roles.
+	 * Calls to show rarely have to wait for the window, at the cost of the memory of an additional buffer.
+	 */
+	DOUBLE_BUFFERED,
+	/**
+	 * Like {@link #DOUBLE_BUFFERED} but with three buffers,
+	 * so that calls to show never have to wait for the window to finish displaying.
+	 */
+	TRIPLE_BUFFERED,
+	/**
+	 * The canvas is displayed directly from the thread calling show through a hardware accelerated
+	 * {@link java.awt.image.BufferStrategy}, bypassing the repainting of Swing.
+	 * This mode is the fastest on large windows such as {@link FullScreen}.
+	 * If hardware acceleration is not available, for example when Java2D uses a software pipeline,
+	 * {@link #DOUBLE_BUFFERED} is used instead.
+	 */
+	ACCELERATED
+}
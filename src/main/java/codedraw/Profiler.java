@@ -0,0 +1,53 @@
+package codedraw;
+
+/*
+	Hooks for profiling tools. The methods of this class do nothing.
+	On Java 11 and newer the subclass JfrProfiler from src/jfr/java is loaded instead,
+	which emits Java Flight Recorder events. It is loaded through reflection,
+	so that CodeDraw still compiles and runs on Java 9 and 10.
+
+	The begin methods return a handle that is passed to the matching end method.
+	The handle is null when nothing is being recorded, in which case nothing is allocated or measured.
+*/
+class Profiler {
+	public static final Profiler PROFILER = load();
+
+	private static Profiler load() {
+		try {
+			return (Profiler)Class.forName("codedraw.JfrProfiler").getDeclaredConstructor().newInstance();
+		}
+		catch (ReflectiveOperationException | LinkageError | RuntimeException e) {
+			// not compiled in, running on Java 9 or 10, or the jdk.jfr module is not available
+			return new Profiler();
+		}
+	}
+
+	Profiler() { }
+
+	public Object beginDraw() {
+		return null;
+	}
+
+	// drawn is either the drawn java.awt.Shape, the drawn java.awt.Image or "Text"
+	public void endDraw(Object handle, Object drawn, double width, double height) { }
+
+	public Object beginShow() {
+		return null;
+	}
+
+	public void endShow(Object handle, int regionWidth, int regionHeight) { }
+
+	public Object beginPaint() {
+		return null;
+	}
+
+	public void endPaint(Object handle) { }
+
+	public void eventPushed(Event event) { }
+
+	public Object beginSave() {
+		return null;
+	}
+
+	public void endSave(Object handle, String path, ImageFormat format, int width, int height) { }
+}
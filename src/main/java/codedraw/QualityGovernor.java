@@ -0,0 +1,89 @@
+package codedraw;
+
+import java.util.Arrays;
+import java.util.function.Consumer;
+
+/*
+	The display interpolation only changes how long the window takes to paint a frame,
+	therefore the governor only looks at the PAINT and PAINT_LATENCY samples of the FrameStats.
+	Once SAMPLE_COUNT new frames have been painted, the 90th percentile of painting plus the 90th percentile
+	of waiting for the paint is compared to the frame budget.
+	If it exceeds the budget the display interpolation is lowered by one step,
+	if there is plenty of headroom it is raised by one step.
+	Starting a new window after every decision gives the change time to show an effect.
+	When raising the quality immediately makes painting too slow again, the next raise is attempted
+	only after twice as many windows, so that the quality does not flip back and forth.
+*/
+class QualityGovernor {
+	public QualityGovernor(Consumer<Interpolation> setInterpolation, int framesPerSecond) {
+		this.setInterpolation = setInterpolation;
+		this.budgetNanoseconds = 1_000_000_000D / framesPerSecond;
+		setInterpolation.accept(QUALITY_LEVELS[level]);
+	}
+
+	private static final Interpolation[] QUALITY_LEVELS = {
+		Interpolation.NEAREST_NEIGHBOR,
+		Interpolation.BILINEAR,
+		Interpolation.BICUBIC
+	};
+
+	private static final int SAMPLE_COUNT = 30;
+	private static final double PERCENTILE = 0.9;
+	private static final double LOWER_QUALITY_ABOVE = 0.9;
+	private static final double RAISE_QUALITY_BELOW = 0.5;
+	private static final int MAXIMUM_RAISE_DELAY_WINDOWS = 32;
+
+	private final Consumer<Interpolation> setInterpolation;
+	private final double budgetNanoseconds;
+	private int level = QUALITY_LEVELS.length - 1;
+	private long paintCountAtLastWindow = 0;
+	private long latencyCountAtLastWindow = 0;
+	private boolean wasLastChangeRaise = false;
+	private int windowsSinceChange = 0;
+	private int raiseDelayWindows = 1;
+
+	public Interpolation getInterpolation() {
+		return QUALITY_LEVELS[level];
+	}
+
+	// called once per frame by the animation loop, does nothing until enough new frames have been painted
+	public void update(FrameStats stats) {
+		long paintCount = stats.getSampleCount(FramePhase.PAINT);
+		if (paintCount - paintCountAtLastWindow < SAMPLE_COUNT) return;
+
+		long latencyCount = stats.getSampleCount(FramePhase.PAINT_LATENCY);
+		long paint = percentileOfNewest(stats.copyRecent(FramePhase.PAINT), paintCount - paintCountAtLastWindow);
+		long latency = percentileOfNewest(stats.copyRecent(FramePhase.PAINT_LATENCY), latencyCount - latencyCountAtLastWindow);
+		paintCountAtLastWindow = paintCount;
+		latencyCountAtLastWindow = latencyCount;
+		windowsSinceChange++;
+
+		long displayNanoseconds = paint + latency;
+		if (displayNanoseconds > budgetNanoseconds * LOWER_QUALITY_ABOVE && level > 0) {
+			if (wasLastChangeRaise && windowsSinceChange == 1) {
+				raiseDelayWindows = Math.min(MAXIMUM_RAISE_DELAY_WINDOWS, raiseDelayWindows * 2);
+			}
+			changeLevel(-1);
+		}
+		else if (displayNanoseconds < budgetNanoseconds * RAISE_QUALITY_BELOW && level < QUALITY_LEVELS.length - 1 && windowsSinceChange >= raiseDelayWindows) {
+			changeLevel(1);
+		}
+	}
+
+	private void changeLevel(int change) {
+		level += change;
+		wasLastChangeRaise = change > 0;
+		windowsSinceChange = 0;
+		setInterpolation.accept(QUALITY_LEVELS[level]);
+	}
+
+	// only the samples recorded since the last window count, at most SAMPLE_COUNT of them
+	private static long percentileOfNewest(long[] samples, long newSampleCount) {
+		int count = (int)Math.min(Math.min(newSampleCount, SAMPLE_COUNT), samples.length);
+		if (count == 0) return 0;
+
+		long[] newest = Arrays.copyOfRange(samples, samples.length - count, samples.length);
+		Arrays.sort(newest);
+		return newest[(int)(PERCENTILE * (count - 1))];
+	}
+}
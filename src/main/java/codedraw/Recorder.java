@@ -0,0 +1,430 @@
+package codedraw;
+
+import javax.imageio.ImageIO;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.IllegalFormatException;
+import java.util.Locale;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * The Recorder saves the frames of an animation as numbered image files or as a video.
+ * Recording a frame only copies its pixels, the frames are encoded and written to the file system
+ * on background threads while the animation continues.
+ * <pre>{@code
+ * CodeDraw cd = new CodeDraw();
+ *
+ * try (Recorder recorder = Recorder.toVideo("animation.avi", 60)) {
+ *     for (int i = 0; i < 600; i++) {
+ *         cd.clear();
+ *         cd.fillCircle(i, 300, 20);
+ *         cd.show(16);
+ *         recorder.record(cd);
+ *     }
+ * }
+ * }</pre>
+ * A Recorder is also a {@link FrameSink}, so it can be passed to {@link HeadlessCanvas} to render animations offline.
+ * <br><br>
+ * The copied frames wait in a queue until an encoder thread is free.
+ * When the encoder cannot keep up, the {@link Backpressure} decides whether recording waits, drops the frame or lets the queue grow.
+ * The Recorder must be closed to finish writing all frames. Closing waits until every queued frame has been written.
+ * If writing fails, the next call to {@link #record(Image)} or {@link #close()} throws the exception.
+ */
+public class Recorder implements FrameSink {
+	private static final int DEFAULT_QUEUE_CAPACITY = 8;
+	private static final Frame END = new Frame();
+
+	/**
+	 * Creates a Recorder that saves each frame as a separate image file.
+	 * The files are named by formatting the frame number into the path pattern with {@link String#format(String, Object...)},
+	 * for example "frames/frame%05d.png" results in "frames/frame00000.png", "frames/frame00001.png" and so on.
+	 * Recording blocks when the encoder cannot keep up.
+	 * @param pathPattern the location of the images containing a format specifier for the frame number.
+	 * @param format The format the images are saved in. See {@link Image#save(Image, String, ImageFormat)} for details.
+	 * @return a new Recorder.
+	 */
+	public static Recorder toImageSequence(String pathPattern, ImageFormat format) {
+		return toImageSequence(pathPattern, format, Backpressure.BLOCK, DEFAULT_QUEUE_CAPACITY);
+	}
+
+	/**
+	 * Creates a Recorder that saves each frame as a separate image file.
+	 * The files are named by formatting the frame number into the path pattern with {@link String#format(String, Object...)},
+	 * for example "frames/frame%05d.png" results in "frames/frame00000.png", "frames/frame00001.png" and so on.
+	 * The images are encoded on multiple threads at the same time.
+	 * @param pathPattern the location of the images containing a format specifier for the frame number.
+	 * @param format The format the images are saved in. See {@link Image#save(Image, String, ImageFormat)} for details.
+	 * @param backpressure what happens when frames are recorded faster than they can be encoded.
+	 * @param queueCapacity the number of frames that can wait for encoding.
+	 * @return a new Recorder.
+	 */
+	public static Recorder toImageSequence(String pathPattern, ImageFormat format, Backpressure backpressure, int queueCapacity) {
+		if (pathPattern == null) throw createParameterNullException("pathPattern");
+		if (format == null) throw createParameterNullException("format");
+		if (backpressure == null) throw createParameterNullException("backpressure");
+		if (queueCapacity < 1) throw createParameterMustBeGreaterThanZeroException("queueCapacity");
+		checkPathPattern(pathPattern);
+
+		int encoderThreads = Math.max(1, Runtime.getRuntime().availableProcessors() / 2);
+		return new Recorder(new ImageSequenceEncoder(pathPattern, format), encoderThreads, false, backpressure, queueCapacity);
+	}
+
+	/**
+	 * Creates a Recorder that saves the frames as an MJPEG video in an AVI file.
+	 * Every frame must have the same size as the first frame.
+	 * Recording blocks when the encoder cannot keep up.
+	 * @param pathToVideo The location where the video should be saved. The file should end with ".avi".
+	 * @param framesPerSecond the frame rate at which the video is played back.
+	 * @return a new Recorder.
+	 */
+	public static Recorder toVideo(String pathToVideo, int framesPerSecond) {
+		return toVideo(pathToVideo, framesPerSecond, Backpressure.BLOCK, DEFAULT_QUEUE_CAPACITY);
+	}
+
+	/**
+	 * Creates a Recorder that saves the frames as an MJPEG video in an AVI file.
+	 * Every frame must have the same size as the first frame.
+	 * The frames are encoded on a single thread, since they have to be written in order.
+	 * AVI files are limited to a size of 4 GB.
+	 * @param pathToVideo The location where the video should be saved. The file should end with ".avi".
+	 * @param framesPerSecond the frame rate at which the video is played back.
+	 * @param backpressure what happens when frames are recorded faster than they can be encoded.
+	 * @param queueCapacity the number of frames that can wait for encoding.
+	 * @return a new Recorder.
+	 */
+	public static Recorder toVideo(String pathToVideo, int framesPerSecond, Backpressure backpressure, int queueCapacity) {
+		if (pathToVideo == null) throw createParameterNullException("pathToVideo");
+		if (framesPerSecond < 1) throw createParameterMustBeGreaterThanZeroException("framesPerSecond");
+		if (backpressure == null) throw createParameterNullException("backpressure");
+		if (queueCapacity < 1) throw createParameterMustBeGreaterThanZeroException("queueCapacity");
+
+		return new Recorder(new VideoEncoder(pathToVideo, framesPerSecond), 1, true, backpressure, queueCapacity);
+	}
+
+	private Recorder(Encoder encoder, int encoderThreads, boolean isFixedSize, Backpressure backpressure, int queueCapacity) {
+		this.encoder = encoder;
+		this.isFixedSize = isFixedSize;
+		this.backpressure = backpressure;
+		this.queueCapacity = queueCapacity;
+		queue = backpressure == Backpressure.GROW ? new LinkedBlockingQueue<>() : new LinkedBlockingQueue<>(queueCapacity);
+		encoders = new Thread[encoderThreads];
+
+		for (int i = 0; i < encoderThreads; i++) {
+			encoders[i] = new Thread(this::encodeFrames, "CodeDraw Recorder " + i);
+			encoders[i].setDaemon(true);
+			encoders[i].start();
+		}
+	}
+
+	private final Encoder encoder;
+	private final boolean isFixedSize;
+	private final Backpressure backpressure;
+	private final int queueCapacity;
+	private final BlockingQueue<Frame> queue;
+	private final ConcurrentLinkedQueue<Frame> pool = new ConcurrentLinkedQueue<>();
+	private final AtomicReference<Throwable> failure = new AtomicReference<>();
+	private final Thread[] encoders;
+	private int width = -1;
+	private int height = -1;
+	private long recordedFrames = 0;
+	private volatile long droppedFrames = 0;
+	private boolean isClosed = false;
+
+	/**
+	 * Copies the pixels of the image and queues them for encoding.
+	 * Call this method after {@link CodeDraw#show()} to record what is currently displayed.
+	 * DPI aware images are recorded at their width and height, see {@link Image#getPixels(int, int, int, int, int[])}.
+	 * Depending on the {@link Backpressure} this method waits until there is space in the queue or drops the frame.
+	 * @param image the frame that should be recorded.
+	 */
+	public synchronized void record(Image image) {
+		if (image == null) throw createParameterNullException("image");
+		if (isClosed) throw new IllegalStateException("This Recorder has already been closed.");
+		checkFailure();
+		checkSize(image);
+
+		long frameNumber = recordedFrames++;
+		if (backpressure == Backpressure.DROP && queue.remainingCapacity() == 0) {
+			droppedFrames++;
+			return;
+		}
+
+		Frame frame = snapshot(image, frameNumber);
+		if (backpressure == Backpressure.BLOCK) {
+			try {
+				queue.put(frame);
+			}
+			catch (InterruptedException e) {
+				pool.offer(frame);
+				throw new RuntimeException(e);
+			}
+		}
+		else if (!queue.offer(frame)) {
+			pool.offer(frame);
+			droppedFrames++;
+		}
+	}
+
+	/**
+	 * Records the frame. The frame number and timestamp are ignored,
+	 * the frames are numbered in the order in which they are recorded.
+	 * @param frame the frame that should be recorded.
+	 * @param frameNumber is ignored.
+	 * @param timestampNanos is ignored.
+	 */
+	@Override
+	public void onFrame(Image frame, long frameNumber, long timestampNanos) {
+		record(frame);
+	}
+
+	/**
+	 * The number of frames that have been passed to {@link #record(Image)}, including dropped frames.
+	 * @return the number of frames.
+	 */
+	public synchronized long getRecordedFrames() {
+		return recordedFrames;
+	}
+
+	/**
+	 * The number of frames that have been dropped because the queue was full.
+	 * Frames are only dropped when {@link Backpressure#DROP} is used.
+	 * @return the number of dropped frames.
+	 */
+	public long getDroppedFrames() {
+		return droppedFrames;
+	}
+
+	/**
+	 * The number of frames that are currently waiting for an encoder thread.
+	 * @return the number of queued frames.
+	 */
+	public int getQueuedFrames() {
+		return queue.size();
+	}
+
+	/**
+	 * Checks whether this Recorder has already been closed.
+	 * @return whether this Recorder is closed.
+	 */
+	public synchronized boolean isClosed() {
+		return isClosed;
+	}
+
+	/**
+	 * Waits until all queued frames have been written and completes the file.
+	 * Afterwards no more frames can be recorded.
+	 * Calling close multiple times has no effect.
+	 */
+	@Override
+	public synchronized void close() {
+		if (isClosed) return;
+		isClosed = true;
+
+		try {
+			for (int i = 0; i < encoders.length; i++) {
+				queue.put(END);
+			}
+			for (Thread thread : encoders) {
+				thread.join();
+			}
+		}
+		catch (InterruptedException e) {
+			throw new RuntimeException(e);
+		}
+
+		try {
+			if (failure.get() == null) {
+				encoder.finish(recordedFrames);
+			}
+		}
+		catch (IOException | RuntimeException e) {
+			failure.compareAndSet(null, e);
+		}
+		checkFailure();
+	}
+
+	@Override
+	public String toString() {
+		return "Recorder " + recordedFrames + " frames recorded, " + droppedFrames + " dropped, " + getQueuedFrames() + " of " + queueCapacity + " queued";
+	}
+
+	private Frame snapshot(Image image, long frameNumber) {
+		Frame frame = pool.poll();
+		if (frame == null) {
+			frame = new Frame();
+		}
+
+		int size = image.getWidth() * image.getHeight();
+		if (frame.pixels == null || frame.pixels.length < size) {
+			frame.pixels = new int[size];
+		}
+
+		frame.width = image.getWidth();
+		frame.height = image.getHeight();
+		frame.number = frameNumber;
+		image.getPixels(0, 0, frame.width, frame.height, frame.pixels);
+		return frame;
+	}
+
+	private void encodeFrames() {
+		try {
+			Frame frame;
+			while ((frame = queue.take()) != END) {
+				try {
+					if (failure.get() == null) {
+						encoder.encode(frame);
+					}
+				}
+				catch (Throwable t) {
+					failure.compareAndSet(null, t);
+				}
+				finally {
+					pool.offer(frame);
+				}
+			}
+		}
+		catch (InterruptedException ignored) { }
+	}
+
+	private void checkSize(Image image) {
+		if (!isFixedSize) return;
+
+		if (width == -1) {
+			width = image.getWidth();
+			height = image.getHeight();
+		}
+		else if (image.getWidth() != width || image.getHeight() != height) {
+			throw new IllegalArgumentException("All frames of a video must have the same size. Expected " + width + "x" + height + " but was " + image.getWidth() + "x" + image.getHeight() + ".");
+		}
+	}
+
+	private void checkFailure() {
+		Throwable t = failure.get();
+		if (t instanceof IOException) {
+			throw new UncheckedIOException("The recording could not be saved. " + t.getMessage(), (IOException)t);
+		}
+		else if (t instanceof RuntimeException) {
+			throw (RuntimeException)t;
+		}
+		else if (t instanceof Error) {
+			throw (Error)t;
+		}
+		else if (t != null) {
+			throw new RuntimeException(t);
+		}
+	}
+
+	private static void checkPathPattern(String pathPattern) {
+		try {
+			String.format(Locale.ROOT, pathPattern, 0L);
+		}
+		catch (IllegalFormatException e) {
+			throw new IllegalArgumentException("The parameter pathPattern must contain a format specifier for the frame number such as %05d. " + e.getMessage(), e);
+		}
+	}
+
+	private static class Frame {
+		private int[] pixels;
+		private int width;
+		private int height;
+		private long number;
+	}
+
+	private interface Encoder {
+		void encode(Frame frame) throws IOException;
+
+		void finish(long frameCount) throws IOException;
+	}
+
+	// Stateless, therefore it can be used by multiple encoder threads at the same time.
+	private static class ImageSequenceEncoder implements Encoder {
+		public ImageSequenceEncoder(String pathPattern, ImageFormat format) {
+			this.pathPattern = pathPattern;
+			this.format = format;
+		}
+
+		private final String pathPattern;
+		private final ImageFormat format;
+
+		@Override
+		public void encode(Frame frame) throws IOException {
+			String path = String.format(Locale.ROOT, pathPattern, frame.number);
+			ImageEncoding.flattenOntoWhite(frame.pixels, frame.width * frame.height);
+
+			// the frames are already encoded in parallel, one per encoder thread
+			Object profilerHandle = Profiler.PROFILER.beginSave();
+			ImageEncoding.write(frame.pixels, frame.width, frame.height, format, path, false);
+			Profiler.PROFILER.endSave(profilerHandle, path, format, frame.width, frame.height);
+		}
+
+		@Override
+		public void finish(long frameCount) { }
+	}
+
+	// Only used by a single encoder thread, since the frames have to be written in order.
+	private static class VideoEncoder implements Encoder {
+		public VideoEncoder(String pathToVideo, int framesPerSecond) {
+			this.pathToVideo = pathToVideo;
+			this.framesPerSecond = framesPerSecond;
+		}
+
+		private final String pathToVideo;
+		private final int framesPerSecond;
+		private AviWriter writer;
+		private JpegBuffer current = new JpegBuffer();
+		private JpegBuffer previous = new JpegBuffer();
+
+		@Override
+		public void encode(Frame frame) throws IOException {
+			if (writer == null) {
+				writer = new AviWriter(pathToVideo, frame.width, frame.height, framesPerSecond);
+			}
+
+			repeatPreviousFrame(frame.number);
+
+			ImageEncoding.flattenOntoWhite(frame.pixels, frame.width * frame.height);
+			current.reset();
+			if (!ImageIO.write(ImageEncoding.toBufferedImage(frame.pixels, frame.width, frame.height), ImageFormat.JPEG.getFormatName(), current)) {
+				throw new RuntimeException("Could not save video, because no JPEG writer has been found in ImageIO.");
+			}
+			writer.writeFrame(current.getBuffer(), current.size());
+
+			JpegBuffer swap = previous;
+			previous = current;
+			current = swap;
+		}
+
+		@Override
+		public void finish(long frameCount) throws IOException {
+			if (writer == null) return;
+
+			repeatPreviousFrame(frameCount);
+			writer.close();
+		}
+
+		// Fills the place of dropped frames, so that the following frames are played at the right time.
+		private void repeatPreviousFrame(long untilFrameNumber) throws IOException {
+			while (writer.getFrameCount() < untilFrameNumber && previous.size() > 0) {
+				writer.writeFrame(previous.getBuffer(), previous.size());
+			}
+		}
+	}
+
+	private static class JpegBuffer extends ByteArrayOutputStream {
+		public byte[] getBuffer() {
+			return buf;
+		}
+	}
+
+	private static IllegalArgumentException createParameterNullException(String parameterName) {
+		return new IllegalArgumentException("The parameter " + parameterName + " cannot be null.");
+	}
+
+	private static IllegalArgumentException createParameterMustBeGreaterThanZeroException(String parameterName) {
+		return new IllegalArgumentException("The parameter " + parameterName + " must be greater than zero.");
+	}
+}
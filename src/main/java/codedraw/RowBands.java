@@ -0,0 +1,58 @@
+package codedraw;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+class RowBands {
+	private RowBands() { }
+
+	private static final int MINIMUM_BAND_HEIGHT = 8;
+
+	public static void forEach(int rowCount, boolean isParallel, Band band) {
+		int parallelism = ForkJoinPool.getCommonPoolParallelism();
+
+		if (!isParallel || parallelism <= 1 || rowCount <= MINIMUM_BAND_HEIGHT) {
+			band.process(0, rowCount);
+		}
+		else {
+			// a few bands per core so that a slow band does not leave the other cores idle
+			int bandHeight = Math.max(MINIMUM_BAND_HEIGHT, rowCount / (parallelism * 4));
+			ForkJoinPool.commonPool().invoke(new BandAction(0, rowCount, bandHeight, band));
+		}
+	}
+
+	@FunctionalInterface
+	public interface Band {
+		void process(int startRowInclusive, int endRowExclusive);
+	}
+
+	private static class BandAction extends RecursiveAction {
+		private static final long serialVersionUID = 1L;
+
+		public BandAction(int start, int end, int bandHeight, Band band) {
+			this.start = start;
+			this.end = end;
+			this.bandHeight = bandHeight;
+			this.band = band;
+		}
+
+		private final int start;
+		private final int end;
+		private final int bandHeight;
+		private final Band band;
+
+		@Override
+		protected void compute() {
+			if (end - start <= bandHeight) {
+				band.process(start, end);
+			}
+			else {
+				int middle = (start + end) >>> 1;
+				invokeAll(
+					new BandAction(start, middle, bandHeight, band),
+					new BandAction(middle, end, bandHeight, band)
+				);
+			}
+		}
+	}
+}
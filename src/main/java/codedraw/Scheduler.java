@@ -1,25 +1,44 @@
 package codedraw;
 
+import java.util.function.LongSupplier;
+
+/*
+	Task k is due at startTime + k * interval. The interval is kept as a fractional number of nanoseconds,
+	otherwise rates like 60 or 144 per second would be rounded to a noticeably different rate.
+	Jitter is the time between when a task was due and when it was actually started,
+	the jitter of each frame is recorded in FrameStats as FramePhase.JITTER.
+	The clock is System.nanoTime, except for offline rendering, which uses a virtual clock.
+*/
 class Scheduler {
-	public Scheduler(long timeIntervalBetweenTasksInMilliseconds, boolean dropTasks) {
-		this.timeIntervalMilliseconds = timeIntervalBetweenTasksInMilliseconds;
+	public Scheduler(double tasksPerSecond, boolean dropTasks) {
+		this(tasksPerSecond, dropTasks, System::nanoTime);
+	}
+
+	public Scheduler(double tasksPerSecond, boolean dropTasks, LongSupplier clock) {
+		this.intervalNanoseconds = 1_000_000_000D / tasksPerSecond;
 		this.dropTasks = dropTasks;
+		this.clock = clock;
+		this.startTime = now();
 	}
 
-	private final long timeIntervalMilliseconds;
+	private final double intervalNanoseconds;
 	private final boolean dropTasks;
-	private final long startTime = now();
+	private final LongSupplier clock;
+	private final long startTime;
 
 	private long doneTasks = 0;
 	private long droppedTasks = 0;
+	private long lastJitter = 0;
 
 	public boolean shouldDoTask() {
-		long targetTaskTotalNow = targetTaskTotalNow();
+		long now = now();
+		long targetTaskTotalNow = targetTaskTotal(now);
 
 		if (targetTaskTotalNow < totalCompletedTasks()) {
 			return false;
 		}
 		else if (targetTaskTotalNow == totalCompletedTasks()) {
+			lastJitter = now - dueTime(totalCompletedTasks());
 			doneTasks++;
 			return true;
 		}
@@ -28,25 +47,53 @@ class Scheduler {
 			return false;
 		}
 		else {
+			lastJitter = now - dueTime(totalCompletedTasks());
 			doneTasks++;
 			return true;
 		}
 	}
 
 	public long timeUntilNextTask() {
-		return startTime + timeIntervalMilliseconds * totalCompletedTasks() - now();
+		return dueTime(totalCompletedTasks()) - now();
+	}
+
+	// 0 directly after a task was done, approaching 1 when the next task is due
+	public double getProgressToNextTask() {
+		double progress = 1 - timeUntilNextTask() / intervalNanoseconds;
+		return Math.max(0, Math.min(1, progress));
+	}
+
+	public double getIntervalNanoseconds() {
+		return intervalNanoseconds;
+	}
+
+	public long getDoneTasks() {
+		return doneTasks;
+	}
+
+	public long getDroppedTasks() {
+		return droppedTasks;
+	}
+
+	// how late the last task was started
+	public long getLastJitterNanoseconds() {
+		return lastJitter;
 	}
 
 	private long totalCompletedTasks() {
 		return doneTasks + droppedTasks;
 	}
 
-	private long targetTaskTotalNow() {
-		return (now() - startTime) / timeIntervalMilliseconds;
+	private long dueTime(long task) {
+		// rounded up, so that a task is always due at its due time
+		return startTime + (long)Math.ceil(task * intervalNanoseconds);
 	}
 
-	private static long now() {
-		return System.currentTimeMillis();
+	private long targetTaskTotal(long now) {
+		return (long)((now - startTime) / intervalNanoseconds);
 	}
 
+	private long now() {
+		return clock.getAsLong();
+	}
 }
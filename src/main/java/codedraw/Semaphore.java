@@ -15,6 +15,10 @@ class Semaphore {
 		}
 	}
 
+	public boolean tryAcquire() {
+		return s.tryAcquire();
+	}
+
 	public boolean canAcquire() {
 		return s.availablePermits() > 0;
 	}
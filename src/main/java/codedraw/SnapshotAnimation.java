@@ -0,0 +1,63 @@
+package codedraw;
+
+/**
+ * A SnapshotAnimation runs the simulation and the drawing on two separate threads.
+ * Pass an instance to {@link CodeDraw#run(Animation)}, {@link BorderlessWindow#run(Animation)} or {@link FullScreen#run(Animation)}
+ * like any other {@link Animation}.
+ * <br><br>
+ * The event methods and {@link #simulate()} are called on the simulation thread at a fixed rate,
+ * no matter how long drawing a frame takes.
+ * After simulating, {@link #createSnapshot()} is called to capture everything that is needed to draw the current state.
+ * The render thread then draws the most recent snapshot by calling {@link #draw(Image, Object)}.
+ * Since both threads run at the same time, {@link #draw(Image, Object)} must only read the snapshot
+ * and never the fields that are changed by {@link #simulate()}.
+ * <pre>{@code
+ * class Ball implements SnapshotAnimation<Point2D> {
+ *     private double x = 0;
+ *
+ *     public void simulate() {
+ *         x = (x + 1) % 600;
+ *     }
+ *
+ *     public Point2D createSnapshot() {
+ *         return new Point2D(x, 300);
+ *     }
+ *
+ *     public void draw(Image canvas, Point2D ball) {
+ *         canvas.clear();
+ *         canvas.fillCircle(ball.getX(), ball.getY(), 10);
+ *     }
+ * }
+ * }</pre>
+ * A snapshot must not be modified after it has been returned from {@link #createSnapshot()}.
+ * Frames are only drawn when there is a new snapshot.
+ * @param <S> the type of the snapshot.
+ */
+public interface SnapshotAnimation<S> extends Animation {
+	/**
+	 * Captures the current state of the simulation.
+	 * This method is called on the simulation thread once before the animation starts
+	 * and after each time {@link #simulate()} has been called.
+	 * @return a snapshot that is not modified afterwards.
+	 */
+	S createSnapshot();
+
+	/**
+	 * Draws the state captured in the snapshot onto the canvas.
+	 * This method is called on the render thread.
+	 * @param canvas the canvas to draw on.
+	 * @param snapshot the most recent snapshot.
+	 */
+	void draw(Image canvas, S snapshot);
+
+	/**
+	 * Draws a new snapshot of the current state.
+	 * This method is only used when the animation does not run on its own simulation thread,
+	 * for example when it is combined with other animations through {@link Animation#combine(Animation...)}.
+	 * @param canvas the canvas to draw on.
+	 */
+	@Override
+	default void draw(Image canvas) {
+		draw(canvas, createSnapshot());
+	}
+}
@@ -0,0 +1,84 @@
+package codedraw;
+
+import java.awt.*;
+import java.awt.datatransfer.Clipboard;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/*
+	A swap chain holds one or more buffers that contain copies of the canvas.
+	The front buffer is the one that is displayed, the other buffers are back buffers.
+	acquireBackBuffer waits until a back buffer is no longer displayed,
+	present then copies the changed section of the canvas into it and makes it the front buffer.
+	Each buffer remembers the section that changed since it was last updated,
+	so only changed sections are ever copied, even if the buffer was not updated for multiple frames.
+	present is only ever called by the thread showing the canvas, paint only by the event dispatch thread.
+*/
+class SwapChain {
+	public SwapChain(int bufferCount, int width, int height) {
+		buffers = new Image[bufferCount];
+		locks = new Semaphore[bufferCount];
+		pendingRegions = new Rectangle[bufferCount];
+
+		for (int i = 0; i < bufferCount; i++) {
+			buffers[i] = Image.fromDPIAwareSize(width, height);
+			locks[i] = new Semaphore(1);
+		}
+	}
+
+	private final Image[] buffers;
+	private final Semaphore[] locks;
+	private final Rectangle[] pendingRegions;
+	private final AtomicInteger frontIndex = new AtomicInteger(0);
+
+	public void present(int back, Image image, Rectangle region) {
+		Rectangle copyRegion = union(pendingRegions[back], region);
+		pendingRegions[back] = null;
+		buffers[back].copyRasterRegion(image, copyRegion);
+
+		locks[back].release();
+		frontIndex.set(back);
+
+		for (int i = 0; i < buffers.length; i++) {
+			if (i != back) {
+				pendingRegions[i] = union(pendingRegions[i], region);
+			}
+		}
+	}
+
+	public void paint(Graphics graphics, Interpolation interpolation) {
+		int front = frontIndex.get();
+		locks[front].acquire();
+		buffers[front].copyTo(graphics, interpolation);
+		locks[front].release();
+	}
+
+	public void copyToClipboard() {
+		int front = frontIndex.get();
+		locks[front].acquire();
+		Clipboard clipboard = Toolkit.getDefaultToolkit().getSystemClipboard();
+		clipboard.setContents(new TransferableImage(buffers[front]), null);
+		locks[front].release();
+	}
+
+	public int acquireBackBuffer() {
+		if (buffers.length == 1) {
+			locks[0].acquire();
+			return 0;
+		}
+
+		int front = frontIndex.get();
+		for (int i = 1; i < buffers.length; i++) {
+			int candidate = (front + i) % buffers.length;
+			if (locks[candidate].tryAcquire()) return candidate;
+		}
+
+		// the event dispatch thread is still displaying the previous frame
+		int candidate = (front + 1) % buffers.length;
+		locks[candidate].acquire();
+		return candidate;
+	}
+
+	private static Rectangle union(Rectangle a, Rectangle b) {
+		return a == null ? b : a.union(b);
+	}
+}
@@ -2,6 +2,7 @@ package codedraw;
 
 import java.awt.*;
 import java.awt.font.TextAttribute;
+import java.awt.geom.Rectangle2D;
 import java.util.*;
 
 /**
@@ -258,17 +259,30 @@ public final class TextFormat {
 				+ "}";
 	}
 
-	static void drawText(Graphics2D graphics, double x, double y, String text, TextFormat textFormat) {
+	// returns a rectangle that contains all drawn lines of text, italic letters may slightly overhang the measured width
+	static Rectangle2D drawText(Graphics2D graphics, double x, double y, String text, TextFormat textFormat) {
 		graphics.setFont(textFormat.toFont());
 		FontMetrics fontMetrics = graphics.getFontMetrics();
 		String[] lines = text.split("(\r\n)|\r|\n", -1);
 
 		y += calculateVerticalOffset(textFormat.getTextOrigin(), fontMetrics, lines.length);
 
+		double overhang = fontMetrics.getHeight() / 2D;
+		Rectangle2D bounds = null;
+
 		for (int i = 0; i < lines.length; i++) {
 			double xi = x + calculateHorizontalOffset(textFormat.getTextOrigin(), fontMetrics, lines[i]);
-			graphics.drawString(lines[i], (float) xi, (float)(y + i * fontMetrics.getHeight()));
+			double yi = y + i * fontMetrics.getHeight();
+			graphics.drawString(lines[i], (float) xi, (float) yi);
+
+			Rectangle2D line = new Rectangle2D.Double(
+				xi - overhang, yi - fontMetrics.getMaxAscent(),
+				fontMetrics.stringWidth(lines[i]) + 2 * overhang, fontMetrics.getMaxAscent() + fontMetrics.getMaxDescent()
+			);
+			bounds = bounds == null ? line : bounds.createUnion(line);
 		}
+
+		return bounds;
 	}
 
 	private static double calculateVerticalOffset(TextOrigin verticalAlign, FontMetrics fontMetrics, int lineCount) {
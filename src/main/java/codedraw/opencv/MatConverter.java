@@ -0,0 +1,206 @@
+package codedraw.opencv;
+
+import codedraw.Image;
+import codedraw.PixelAccessor;
+import org.opencv.core.CvType;
+import org.opencv.core.Mat;
+
+import java.nio.IntBuffer;
+
+/**
+ * Converts between OpenCV {@link Mat} and CodeDraw {@link Image}.
+ * The pixels are copied directly, without encoding them as JPEG or redrawing them.
+ * <pre>{@code
+ * OpenCV.loadLocally();
+ * VideoCapture capture = new VideoCapture("video.mp4");
+ * MatConverter converter = new MatConverter();
+ * Mat frame = new Mat();
+ *
+ * CodeDraw cd = new CodeDraw(640, 360);
+ * Image image = new Image(640, 360);
+ *
+ * while (capture.read(frame)) {
+ *     converter.toImage(frame, image);
+ *     cd.drawImage(0, 0, image);
+ *     cd.show();
+ * }
+ * }</pre>
+ * Supported are Mats with 8 bit per channel and 1 (gray), 3 (BGR) or 4 (BGRA) channels,
+ * which is the format in which OpenCV reads images and videos.
+ * <br><br>
+ * A MatConverter keeps the buffers it needs for converting and reuses them,
+ * therefore converting frames of the same size repeatedly does not allocate memory.
+ * Because of these buffers a MatConverter must not be used by multiple threads at the same time.
+ * The OpenCV native library has to be loaded before converting, for example with {@code nu.pattern.OpenCV.loadLocally()}.
+ */
+public class MatConverter {
+	/**
+	 * Creates a new MatConverter.
+	 */
+	public MatConverter() { }
+
+	private byte[] bytes = new byte[0];
+	private int[] argb = new int[0];
+
+	/**
+	 * Creates a new image containing the pixels of the Mat.
+	 * @param source a Mat with 8 bit per channel and 1, 3 or 4 channels.
+	 * @return a new image with the same size as the Mat.
+	 */
+	public Image toImage(Mat source) {
+		checkMat(source, "source");
+
+		Image result = new Image(source.cols(), source.rows());
+		toImage(source, result);
+		return result;
+	}
+
+	/**
+	 * Copies the pixels of the Mat into an existing image.
+	 * The image must have the same width and height as the Mat.
+	 * Mats with 1 or 3 channels result in opaque pixels.
+	 * Ignores any transformation or drawing property of the image.
+	 * @param source a Mat with 8 bit per channel and 1, 3 or 4 channels.
+	 * @param target the image the pixels are copied into.
+	 */
+	public void toImage(Mat source, Image target) {
+		checkMat(source, "source");
+		if (target == null) throw createParameterNullException("target");
+		checkSize(source, target);
+
+		int width = source.cols();
+		int height = source.rows();
+		int channels = source.channels();
+		byte[] bytes = readBytes(source, width * height * channels);
+
+		PixelAccessor pixels = target.lockPixels();
+		try {
+			if (pixels.getWidth() == width && pixels.getHeight() == height) {
+				IntBuffer buffer = pixels.getBuffer();
+				if (buffer.hasArray()) {
+					toARGB(bytes, channels, buffer.array(), buffer.arrayOffset(), width * height);
+					return;
+				}
+			}
+		}
+		finally {
+			pixels.close();
+		}
+
+		// DPI aware images have more pixels than the Mat, setPixels scales them up
+		int[] argb = argbBuffer(width * height);
+		toARGB(bytes, channels, argb, 0, width * height);
+		target.setPixels(0, 0, width, height, argb);
+	}
+
+	/**
+	 * Creates a new Mat with the three channels BGR containing the pixels of the image.
+	 * @param source any image.
+	 * @return a new Mat of the type {@link CvType#CV_8UC3}.
+	 */
+	public Mat toMat(Image source) {
+		if (source == null) throw createParameterNullException("source");
+
+		Mat result = new Mat(source.getHeight(), source.getWidth(), CvType.CV_8UC3);
+		toMat(source, result);
+		return result;
+	}
+
+	/**
+	 * Copies the pixels of the image into an existing Mat.
+	 * If the Mat is of the type {@link CvType#CV_8UC4} the pixels are stored as BGRA,
+	 * otherwise the Mat is turned into a {@link CvType#CV_8UC3} Mat and the pixels are stored as BGR without transparency.
+	 * The Mat is resized to the size of the image if necessary.
+	 * Mats of the right type and size are reused without allocating memory.
+	 * On DPI aware images the colors are averaged the same way {@link Image#getPixels(int, int, int, int, int[])} does.
+	 * @param source any image.
+	 * @param target the Mat the pixels are copied into.
+	 */
+	public void toMat(Image source, Mat target) {
+		if (source == null) throw createParameterNullException("source");
+		if (target == null) throw createParameterNullException("target");
+
+		int width = source.getWidth();
+		int height = source.getHeight();
+		int channels = target.type() == CvType.CV_8UC4 ? 4 : 3;
+
+		int[] argb = argbBuffer(width * height);
+		source.getPixels(0, 0, width, height, argb);
+
+		byte[] bytes = byteBuffer(width * height * channels);
+		fromARGB(argb, width * height, bytes, channels);
+
+		target.create(height, width, CvType.makeType(CvType.CV_8U, channels));
+		target.put(0, 0, bytes);
+	}
+
+	private byte[] readBytes(Mat source, int length) {
+		byte[] bytes = byteBuffer(length);
+		source.get(0, 0, bytes);
+		return bytes;
+	}
+
+	// The buffers always have the exact length, since Mat.get and Mat.put copy as many bytes as the array holds.
+	private byte[] byteBuffer(int length) {
+		if (bytes.length != length) {
+			bytes = new byte[length];
+		}
+		return bytes;
+	}
+
+	private int[] argbBuffer(int length) {
+		if (argb.length < length) {
+			argb = new int[length];
+		}
+		return argb;
+	}
+
+	private static void toARGB(byte[] bytes, int channels, int[] argb, int offset, int pixelCount) {
+		if (channels == 1) {
+			for (int i = 0; i < pixelCount; i++) {
+				int gray = bytes[i] & 0xFF;
+				argb[offset + i] = 0xFF000000 | gray << 16 | gray << 8 | gray;
+			}
+		}
+		else if (channels == 3) {
+			for (int i = 0, j = 0; i < pixelCount; i++, j += 3) {
+				argb[offset + i] = 0xFF000000 | (bytes[j + 2] & 0xFF) << 16 | (bytes[j + 1] & 0xFF) << 8 | bytes[j] & 0xFF;
+			}
+		}
+		else {
+			for (int i = 0, j = 0; i < pixelCount; i++, j += 4) {
+				argb[offset + i] = (bytes[j + 3] & 0xFF) << 24 | (bytes[j + 2] & 0xFF) << 16 | (bytes[j + 1] & 0xFF) << 8 | bytes[j] & 0xFF;
+			}
+		}
+	}
+
+	private static void fromARGB(int[] argb, int pixelCount, byte[] bytes, int channels) {
+		for (int i = 0, j = 0; i < pixelCount; i++, j += channels) {
+			int pixel = argb[i];
+			bytes[j] = (byte)pixel;
+			bytes[j + 1] = (byte)(pixel >> 8);
+			bytes[j + 2] = (byte)(pixel >> 16);
+			if (channels == 4) {
+				bytes[j + 3] = (byte)(pixel >>> 24);
+			}
+		}
+	}
+
+	private static void checkMat(Mat mat, String parameterName) {
+		if (mat == null) throw createParameterNullException(parameterName);
+		if (mat.empty()) throw new IllegalArgumentException("The parameter " + parameterName + " cannot be an empty Mat.");
+		if (mat.dims() != 2 || mat.depth() != CvType.CV_8U || mat.channels() != 1 && mat.channels() != 3 && mat.channels() != 4) {
+			throw new IllegalArgumentException("The parameter " + parameterName + " must be a two dimensional Mat with 8 bit per channel and 1, 3 or 4 channels but was " + CvType.typeToString(mat.type()) + ".");
+		}
+	}
+
+	private static void checkSize(Mat source, Image target) {
+		if (source.cols() != target.getWidth() || source.rows() != target.getHeight()) {
+			throw new IllegalArgumentException("The Mat and the image must have the same size. The Mat is " + source.cols() + "x" + source.rows() + " but the image is " + target.getWidth() + "x" + target.getHeight() + ".");
+		}
+	}
+
+	private static IllegalArgumentException createParameterNullException(String parameterName) {
+		return new IllegalArgumentException("The parameter " + parameterName + " cannot be null.");
+	}
+}
@@ -0,0 +1,431 @@
+package codedraw.opencv;
+
+import codedraw.CodeDraw;
+import codedraw.Image;
+import codedraw.PreciseSleep;
+import org.opencv.core.Mat;
+import org.opencv.videoio.VideoCapture;
+import org.opencv.videoio.Videoio;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * The VideoPlayer plays video files on a CodeDraw canvas at the frame rate of the video.
+ * <pre>{@code
+ * OpenCV.loadLocally();
+ *
+ * try (VideoPlayer player = new VideoPlayer("video.mp4")) {
+ *     CodeDraw cd = new CodeDraw(player.getWidth(), player.getHeight());
+ *     player.play(cd);
+ * }
+ * }</pre>
+ * The video is decoded on a separate thread into a small number of preallocated images,
+ * so that decoding the next frames happens while the current frame is displayed.
+ * Every frame is displayed at the point in time it belongs to.
+ * When displaying falls behind, frames that are already late are skipped instead of slowing the video down.
+ * <br><br>
+ * To draw on top of the video, use {@link #drawNextFrame(Image)} instead of {@link #play(CodeDraw)}:
+ * <pre>{@code
+ * while (player.drawNextFrame(cd)) {
+ *     cd.drawText(10, 10, "Frame " + player.getCurrentFrame());
+ *     cd.show();
+ * }
+ * }</pre>
+ * The OpenCV native library has to be loaded before creating a VideoPlayer, for example with {@code nu.pattern.OpenCV.loadLocally()}.
+ */
+public class VideoPlayer implements AutoCloseable {
+	private static final int DEFAULT_BUFFERED_FRAMES = 4;
+	private static final double DEFAULT_FRAMES_PER_SECOND = 30;
+
+	/**
+	 * Opens the video file for playback.
+	 * @param pathToVideo the location of the video file.
+	 */
+	public VideoPlayer(String pathToVideo) {
+		this(pathToVideo, DEFAULT_BUFFERED_FRAMES);
+	}
+
+	/**
+	 * Opens the video file for playback.
+	 * @param pathToVideo the location of the video file.
+	 * @param bufferedFrames the number of frames that are decoded ahead of time. Must be at least 2.
+	 */
+	public VideoPlayer(String pathToVideo, int bufferedFrames) {
+		if (pathToVideo == null) throw createParameterNullException("pathToVideo");
+		if (bufferedFrames < 2) throw new IllegalArgumentException("The parameter bufferedFrames must be at least 2.");
+
+		capture = new VideoCapture(pathToVideo);
+		if (!capture.isOpened()) {
+			capture.release();
+			throw new RuntimeException("The video '" + pathToVideo + "' can not be opened.");
+		}
+
+		width = (int)capture.get(Videoio.CAP_PROP_FRAME_WIDTH);
+		height = (int)capture.get(Videoio.CAP_PROP_FRAME_HEIGHT);
+		double fps = capture.get(Videoio.CAP_PROP_FPS);
+		framesPerSecond = fps > 0 && !Double.isInfinite(fps) ? fps : DEFAULT_FRAMES_PER_SECOND;
+		frameCount = Math.max(0, (long)capture.get(Videoio.CAP_PROP_FRAME_COUNT));
+
+		free = new ArrayBlockingQueue<>(bufferedFrames);
+		decoded = new LinkedBlockingQueue<>();
+		for (int i = 0; i < bufferedFrames; i++) {
+			free.add(new Frame(new Image(width, height)));
+		}
+
+		decoder = new Thread(this::decodeFrames, "CodeDraw Video Decoder");
+		decoder.setDaemon(true);
+		decoder.start();
+	}
+
+	private final VideoCapture capture;
+	private final int width;
+	private final int height;
+	private final double framesPerSecond;
+	private final long frameCount;
+	private final BlockingQueue<Frame> free;
+	private final BlockingQueue<Frame> decoded;
+	private final AtomicReference<SeekRequest> seekRequest = new AtomicReference<>();
+	private final Thread decoder;
+	private volatile Throwable decoderFailure = null;
+	private volatile boolean isLooping = false;
+	private volatile boolean isClosed = false;
+	// only accessed by the thread playing the video
+	private int generation = 0;
+	private Frame next = null;
+	private long startTime = 0;
+	private boolean isTimingReset = true;
+	private long currentFrame = -1;
+	private long droppedFrames = 0;
+
+	/**
+	 * The width of the video in pixel.
+	 * @return the width in pixel.
+	 */
+	public int getWidth() {
+		return width;
+	}
+
+	/**
+	 * The height of the video in pixel.
+	 * @return the height in pixel.
+	 */
+	public int getHeight() {
+		return height;
+	}
+
+	/**
+	 * The frame rate stored in the video file.
+	 * If the video file does not specify a frame rate, 30 frames per second are assumed.
+	 * @return the frames per second.
+	 */
+	public double getFramesPerSecond() {
+		return framesPerSecond;
+	}
+
+	/**
+	 * The number of frames in the video as stated by the video file.
+	 * Some video formats only contain an estimate.
+	 * @return the number of frames.
+	 */
+	public long getFrameCount() {
+		return frameCount;
+	}
+
+	/**
+	 * The number of the frame that has been drawn last, starting at 0.
+	 * @return the frame number or -1 if no frame has been drawn yet.
+	 */
+	public long getCurrentFrame() {
+		return currentFrame;
+	}
+
+	/**
+	 * The number of frames that have been skipped because they were late.
+	 * @return the number of skipped frames.
+	 */
+	public long getDroppedFrames() {
+		return droppedFrames;
+	}
+
+	/**
+	 * Whether the video starts from the beginning after the last frame.
+	 * @return whether the video loops.
+	 */
+	public boolean isLooping() {
+		return isLooping;
+	}
+
+	/**
+	 * Defines whether the video starts from the beginning after the last frame.
+	 * Looping is disabled by default.
+	 * @param isLooping whether the video loops.
+	 */
+	public void setLooping(boolean isLooping) {
+		this.isLooping = isLooping;
+	}
+
+	/**
+	 * Jumps to the given frame. The next call to {@link #drawNextFrame(Image)} draws this frame
+	 * and the playback continues from there at the frame rate of the video.
+	 * Seeking also restarts a video that has already ended.
+	 * @param frameNumber the frame number starting at 0.
+	 */
+	public void seek(long frameNumber) {
+		if (frameNumber < 0) throw new IllegalArgumentException("The parameter frameNumber must be zero or greater.");
+		checkIsClosed();
+
+		generation++;
+		seekRequest.set(new SeekRequest(frameNumber, generation));
+		if (next != null) {
+			release(next);
+			next = null;
+		}
+		for (Frame frame; (frame = decoded.poll()) != null; ) {
+			release(frame);
+		}
+		isTimingReset = true;
+	}
+
+	/**
+	 * Draws all frames of the video onto the canvas and displays them at the frame rate of the video.
+	 * When the video loops, this method only returns once the window is closed.
+	 * @param canvas the window the video is played in.
+	 */
+	public void play(CodeDraw canvas) {
+		if (canvas == null) throw createParameterNullException("canvas");
+
+		while (!canvas.isClosed() && drawNextFrame(canvas)) {
+			canvas.show();
+		}
+	}
+
+	/**
+	 * Waits until it is time for the next frame and draws it onto the canvas.
+	 * The frame is scaled to the size of the canvas.
+	 * Frames whose time has already passed are skipped if a later frame is already available.
+	 * Call {@link CodeDraw#show()} afterwards to display the frame.
+	 * If decoding the video failed, the exception of the decoder is thrown by this and all following calls.
+	 * @param canvas the canvas the frame is drawn on.
+	 * @return false when the end of the video has been reached, otherwise true.
+	 */
+	public boolean drawNextFrame(Image canvas) {
+		if (canvas == null) throw createParameterNullException("canvas");
+		checkIsClosed();
+
+		Frame frame = takeFrame(true);
+		if (frame.isEnd() && isLooping) {
+			// the end was reached before looping has been enabled
+			seek(0);
+			frame = takeFrame(true);
+		}
+		if (frame.isEnd()) {
+			next = frame;
+			return false;
+		}
+
+		if (isTimingReset) {
+			startTime = System.nanoTime() - timeOf(frame.sequence);
+			isTimingReset = false;
+		}
+
+		// a late frame is only skipped when the frame after it is due as well, otherwise it is shown late
+		while (true) {
+			Frame later = takeFrame(false);
+			if (later == null) break;
+			if (later.isEnd() || System.nanoTime() < dueTime(later)) {
+				next = later;
+				break;
+			}
+			release(frame);
+			frame = later;
+			droppedFrames++;
+		}
+
+		PreciseSleep.until(dueTime(frame));
+
+		if (canvas.getWidth() == width && canvas.getHeight() == height) {
+			canvas.drawImage(0, 0, frame.image);
+		}
+		else {
+			canvas.drawImage(0, 0, canvas.getWidth(), canvas.getHeight(), frame.image);
+		}
+		currentFrame = frame.frameNumber;
+		release(frame);
+		return true;
+	}
+
+	/**
+	 * Stops decoding and releases the video file.
+	 * Calling close multiple times has no effect.
+	 */
+	@Override
+	public void close() {
+		if (isClosed) return;
+		isClosed = true;
+
+		try {
+			decoder.join();
+		}
+		catch (InterruptedException e) {
+			throw new RuntimeException(e);
+		}
+	}
+
+	@Override
+	public String toString() {
+		return "VideoPlayer " + width + "x" + height + " at " + framesPerSecond + " fps, frame " + currentFrame + " of " + frameCount;
+	}
+
+	private long dueTime(Frame frame) {
+		return startTime + timeOf(frame.sequence);
+	}
+
+	// computed for each frame instead of adding up a rounded frame duration, which would drift on rates such as 29.97
+	private long timeOf(long sequence) {
+		return (long)(sequence * 1_000_000_000.0 / framesPerSecond);
+	}
+
+	// Frames decoded before the last seek are put back without being shown.
+	private Frame takeFrame(boolean wait) {
+		while (true) {
+			checkDecoderFailure();
+
+			Frame frame = next;
+			next = null;
+			if (frame == null) {
+				try {
+					frame = wait ? decoded.take() : decoded.poll();
+				}
+				catch (InterruptedException e) {
+					throw new RuntimeException(e);
+				}
+				if (frame == null) return null;
+			}
+
+			if (frame.generation == generation && decoderFailure == null) {
+				return frame;
+			}
+			release(frame);
+		}
+	}
+
+	private void release(Frame frame) {
+		if (!frame.isEnd()) {
+			free.add(frame);
+		}
+	}
+
+	private void decodeFrames() {
+		MatConverter converter = new MatConverter();
+		Mat mat = new Mat();
+		long sequence = 0;
+		int decodingGeneration = 0;
+		boolean hasEnded = false;
+		boolean hasDecodedSinceRewind = false;
+
+		try {
+			while (!isClosed) {
+				SeekRequest seek = seekRequest.getAndSet(null);
+				if (seek != null) {
+					decodingGeneration = seek.generation;
+					capture.set(Videoio.CAP_PROP_POS_FRAMES, seek.frameNumber);
+					sequence = 0;
+					hasEnded = false;
+				}
+
+				Frame frame = hasEnded ? null : free.poll(10, TimeUnit.MILLISECONDS);
+				if (frame == null) {
+					if (hasEnded) LockSupport.parkNanos(1_000_000);
+					continue;
+				}
+
+				long frameNumber = (long)capture.get(Videoio.CAP_PROP_POS_FRAMES);
+				if (!capture.read(mat) || mat.empty()) {
+					free.add(frame);
+					if (isLooping && hasDecodedSinceRewind) {
+						capture.set(Videoio.CAP_PROP_POS_FRAMES, 0);
+						hasDecodedSinceRewind = false;
+					}
+					else {
+						Frame end = new Frame(null);
+						end.generation = decodingGeneration;
+						decoded.add(end);
+						hasEnded = true;
+					}
+					continue;
+				}
+				hasDecodedSinceRewind = true;
+
+				converter.toImage(mat, frame.image);
+				frame.frameNumber = frameNumber;
+				frame.sequence = sequence++;
+				frame.generation = decodingGeneration;
+				decoded.add(frame);
+			}
+		}
+		catch (InterruptedException ignored) { }
+		catch (Throwable t) {
+			// for example decoded frames whose size differs from the size stated by the video file
+			decoderFailure = t;
+			// wakes up drawNextFrame if it is waiting for a frame
+			decoded.add(new Frame(null));
+		}
+		finally {
+			mat.release();
+			capture.release();
+		}
+	}
+
+	private void checkDecoderFailure() {
+		Throwable t = decoderFailure;
+		if (t instanceof RuntimeException) {
+			throw (RuntimeException)t;
+		}
+		else if (t instanceof Error) {
+			throw (Error)t;
+		}
+		else if (t != null) {
+			throw new RuntimeException(t);
+		}
+	}
+
+	private void checkIsClosed() {
+		if (isClosed) throw new IllegalStateException("This VideoPlayer has already been closed.");
+	}
+
+	private static class Frame {
+		public Frame(Image image) {
+			this.image = image;
+		}
+
+		private final Image image;
+		private long frameNumber;
+		private long sequence;
+		private int generation;
+
+		public boolean isEnd() {
+			return image == null;
+		}
+	}
+
+	// The target and the generation are published together, so that the decoder can never
+	// combine the position of one seek with the generation of another.
+	private static class SeekRequest {
+		public SeekRequest(long frameNumber, int generation) {
+			this.frameNumber = frameNumber;
+			this.generation = generation;
+		}
+
+		private final long frameNumber;
+		private final int generation;
+	}
+
+	private static IllegalArgumentException createParameterNullException(String parameterName) {
+		return new IllegalArgumentException("The parameter " + parameterName + " cannot be null.");
+	}
+}
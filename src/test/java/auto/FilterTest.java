@@ -0,0 +1,81 @@
+package auto;
+
+import codedraw.EdgeMode;
+import codedraw.Image;
+import codedraw.Palette;
+import org.junit.Test;
+
+import java.awt.*;
+
+import static org.junit.Assert.*;
+
+public class FilterTest {
+	@Test
+	public void blurringUniformImageDoesNotChangeIt() {
+		Image image = new Image(30, 20, Palette.ORANGE);
+
+		assertUniform(Image.gaussianBlur(image, 4), Palette.ORANGE);
+		assertUniform(Image.boxBlur(image, 3), Palette.ORANGE);
+		assertUniform(Image.sharpen(image), Palette.ORANGE);
+		assertUniform(Image.boxBlur(image, 3, EdgeMode.WRAP), Palette.ORANGE);
+		assertUniform(Image.gaussianBlur(image, 2, EdgeMode.MIRROR), Palette.ORANGE);
+	}
+
+	@Test
+	public void boxBlurAveragesNeighbours() {
+		Image image = new Image(3, 3, Palette.BLACK);
+		image.setPixel(1, 1, Palette.WHITE);
+
+		Image blurred = Image.boxBlur(image, 1, EdgeMode.TRANSPARENT);
+
+		assertEquals(255 / 9.0, blurred.getPixel(1, 1).getRed(), 1);
+		assertEquals(255, blurred.getPixel(1, 1).getAlpha());
+		assertEquals(255 / 4.0, blurred.getPixel(0, 0).getRed(), 1);
+		assertEquals(4 / 9.0 * 255, blurred.getPixel(0, 0).getAlpha(), 1);
+	}
+
+	@Test
+	public void identityKernelCopiesImage() {
+		Image image = new Image(10, 10, Palette.WHITE);
+		image.setColor(Palette.BLUE);
+		image.fillCircle(5, 5, 3);
+
+		Image result = Image.convolve(image, new double[][] { { 0, 0, 0 }, { 0, 1, 0 }, { 0, 0, 0 } });
+
+		for (int y = 0; y < 10; y++) {
+			for (int x = 0; x < 10; x++) {
+				assertEquals(image.getPixel(x, y), result.getPixel(x, y));
+			}
+		}
+	}
+
+	@Test
+	public void detectEdgesOfUniformImageIsBlack() {
+		assertUniform(Image.detectEdges(new Image(10, 10, Palette.RED)), Palette.BLACK);
+	}
+
+	@Test
+	public void detectEdgesFindsVerticalEdge() {
+		Image image = new Image(10, 10, Palette.BLACK);
+		image.setColor(Palette.WHITE);
+		image.fillRectangle(5, 0, 5, 10);
+
+		Image edges = Image.detectEdges(image);
+
+		assertEquals(Palette.BLACK, edges.getPixel(1, 5));
+		assertEquals(Palette.WHITE, edges.getPixel(5, 5));
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void evenKernelShouldThrow() {
+		Image.convolve(new Image(10, 10), new double[][] { { 1, 1 }, { 1, 1 } });
+	}
+
+	private static void assertUniform(Image image, Color color) {
+		for (int y = 0; y < image.getHeight(); y++) {
+			for (int x = 0; x < image.getWidth(); x++) {
+				assertEquals(color, image.getPixel(x, y));
+			}
+		}
+	}
+}
@@ -0,0 +1,100 @@
+package auto;
+
+import codedraw.*;
+import org.junit.Test;
+
+import java.util.ArrayList;
+
+import static org.junit.Assert.*;
+
+public class HeadlessCanvasTest {
+	private static class RecordingSink implements FrameSink {
+		final ArrayList<Integer> centerPixels = new ArrayList<>();
+		final ArrayList<Long> timestamps = new ArrayList<>();
+		boolean isClosed = false;
+
+		@Override
+		public void onFrame(Image frame, long frameNumber, long timestampNanos) {
+			assertEquals(centerPixels.size(), frameNumber);
+			centerPixels.add(frame.getPixel(frame.getWidth() / 2, frame.getHeight() / 2).getRGB());
+			timestamps.add(timestampNanos);
+		}
+
+		@Override
+		public void close() {
+			isClosed = true;
+		}
+	}
+
+	@Test
+	public void runUsesVirtualTime() {
+		RecordingSink sink = new RecordingSink();
+		int[] simulations = {0};
+		ArrayList<Double> alphas = new ArrayList<>();
+
+		HeadlessCanvas.run(new InterpolatedAnimation() {
+			@Override
+			public void simulate() {
+				simulations[0]++;
+			}
+
+			@Override
+			public void draw(Image canvas, double alpha) {
+				alphas.add(alpha);
+				canvas.clear(simulations[0] % 2 == 0 ? Palette.BLACK : Palette.WHITE);
+			}
+		}, 20, 20, 120, 30, 240, sink);
+
+		// 2 seconds of animation time at 30 simulations per second
+		assertEquals(60, simulations[0]);
+		assertEquals(240, sink.timestamps.size());
+		assertEquals(0, (long)sink.timestamps.get(0));
+		assertEquals(1_000_000_000L, sink.timestamps.get(120), 1);
+		assertEquals(0, alphas.get(0), 0.01);
+		assertEquals(0.25, alphas.get(1), 0.01);
+		assertEquals(0.75, alphas.get(3), 0.01);
+		assertEquals(Palette.WHITE.getRGB(), (int)sink.centerPixels.get(0));
+		assertEquals(Palette.BLACK.getRGB(), (int)sink.centerPixels.get(4));
+		assertTrue(sink.isClosed);
+	}
+
+	@Test
+	public void showPassesFramesToSink() {
+		RecordingSink sink = new RecordingSink();
+
+		try (HeadlessCanvas canvas = new HeadlessCanvas(10, 10, sink)) {
+			canvas.clear(Palette.RED);
+			canvas.show();
+			canvas.clear(Palette.BLUE);
+			canvas.show();
+			assertEquals(2, canvas.getFrameCount());
+		}
+
+		assertEquals(Palette.RED.getRGB(), (int)sink.centerPixels.get(0));
+		assertEquals(Palette.BLUE.getRGB(), (int)sink.centerPixels.get(1));
+		assertTrue(sink.isClosed);
+	}
+
+	@Test
+	public void showTimestampsStartAtTheFirstFrame() throws InterruptedException {
+		RecordingSink sink = new RecordingSink();
+
+		try (HeadlessCanvas canvas = new HeadlessCanvas(10, 10, sink)) {
+			Thread.sleep(200);
+			canvas.show();
+			Thread.sleep(5);
+			canvas.show();
+		}
+
+		assertEquals(0, (long)sink.timestamps.get(0));
+		assertTrue(sink.timestamps.get(1) >= 5_000_000);
+		assertTrue(sink.timestamps.get(1) < 200_000_000);
+	}
+
+	@Test(expected = IllegalStateException.class)
+	public void showAfterCloseShouldThrow() {
+		HeadlessCanvas canvas = new HeadlessCanvas(10, 10, (frame, frameNumber, timestampNanos) -> { });
+		canvas.close();
+		canvas.show();
+	}
+}
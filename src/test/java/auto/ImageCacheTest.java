@@ -0,0 +1,70 @@
+package auto;
+
+import codedraw.*;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+
+import static org.junit.Assert.*;
+
+public class ImageCacheTest {
+	@Rule
+	public TemporaryFolder folder = new TemporaryFolder();
+
+	private String saveImage(String name, int size, java.awt.Color color) {
+		String path = new File(folder.getRoot(), name).getPath();
+		Image.save(new Image(size, size, color), path, ImageFormat.PNG);
+		return path;
+	}
+
+	@Test
+	public void secondLoadIsAHitAndReturnsACopy() {
+		String path = saveImage("red.png", 10, Palette.RED);
+		ImageCache cache = new ImageCache(1024 * 1024);
+
+		Image first = cache.fromFile(path);
+		first.clear(Palette.BLUE);
+		Image second = cache.fromFile(path);
+
+		assertEquals(Palette.RED, second.getPixel(5, 5));
+		assertEquals(1, cache.getHits());
+		assertEquals(1, cache.getMisses());
+		assertEquals(400, cache.getSizeInBytes());
+	}
+
+	@Test
+	public void leastRecentlyUsedImageIsEvicted() {
+		String a = saveImage("a.png", 10, Palette.RED);
+		String b = saveImage("b.png", 10, Palette.GREEN);
+		String c = saveImage("c.png", 10, Palette.BLUE);
+		ImageCache cache = new ImageCache(800);
+
+		cache.fromFile(a);
+		cache.fromFile(b);
+		cache.fromFile(a);
+		cache.fromFile(c);
+
+		assertEquals(1, cache.getEvictions());
+		assertEquals(2, cache.getImageCount());
+		cache.fromFile(a);
+		assertEquals(2, cache.getHits());
+		cache.fromFile(b);
+		assertEquals(4, cache.getMisses());
+	}
+
+	@Test
+	public void modifiedFileIsLoadedAgain() {
+		String path = saveImage("image.png", 10, Palette.RED);
+		ImageCache cache = new ImageCache(1024 * 1024);
+		cache.fromFile(path);
+
+		Image.save(new Image(12, 12, Palette.BLUE), path, ImageFormat.PNG);
+		new File(path).setLastModified(System.currentTimeMillis() + 10_000);
+
+		assertEquals(Palette.BLUE, cache.fromFile(path).getPixel(5, 5));
+		assertEquals(2, cache.getMisses());
+		assertEquals(1, cache.getImageCount());
+	}
+}
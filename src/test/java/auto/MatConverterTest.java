@@ -0,0 +1,60 @@
+package auto;
+
+import codedraw.Image;
+import codedraw.Palette;
+import codedraw.opencv.MatConverter;
+import nu.pattern.OpenCV;
+import org.junit.BeforeClass;
+import org.junit.Test;
+import org.opencv.core.CvType;
+import org.opencv.core.Mat;
+import org.opencv.core.Scalar;
+
+import java.awt.Color;
+
+import static org.junit.Assert.*;
+
+public class MatConverterTest {
+	@BeforeClass
+	public static void loadOpenCV() {
+		OpenCV.loadLocally();
+	}
+
+	@Test
+	public void bgrMatToImage() {
+		Mat mat = new Mat(3, 4, CvType.CV_8UC3, new Scalar(10, 20, 30));
+		mat.put(1, 2, new byte[] {(byte)255, 0, 0});
+
+		Image image = new MatConverter().toImage(mat);
+
+		assertEquals(4, image.getWidth());
+		assertEquals(3, image.getHeight());
+		assertEquals(new Color(30, 20, 10), image.getPixel(0, 0));
+		assertEquals(Palette.BLUE, image.getPixel(2, 1));
+	}
+
+	@Test
+	public void imageToMatAndBack() {
+		Image image = new Image(5, 5, Palette.WHITE);
+		image.setPixel(3, 1, new Color(1, 2, 3, 4));
+		MatConverter converter = new MatConverter();
+		Mat mat = new Mat(1, 1, CvType.CV_8UC4);
+
+		converter.toMat(image, mat);
+		assertEquals(5, mat.cols());
+		assertEquals(CvType.CV_8UC4, mat.type());
+		byte[] bgra = new byte[4];
+		mat.get(1, 3, bgra);
+		assertArrayEquals(new byte[] {3, 2, 1, 4}, bgra);
+
+		Image result = new Image(5, 5);
+		converter.toImage(mat, result);
+		assertEquals(image.getPixel(3, 1), result.getPixel(3, 1));
+		assertEquals(Palette.WHITE, result.getPixel(0, 0));
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void differentSizeShouldThrow() {
+		new MatConverter().toImage(new Mat(3, 4, CvType.CV_8UC3), new Image(4, 4));
+	}
+}
@@ -0,0 +1,93 @@
+package auto;
+
+import codedraw.Image;
+import codedraw.Palette;
+import codedraw.PixelAccessor;
+import codedraw.PixelShader;
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+public class PixelTest {
+	@Test
+	public void getPixelsMatchesGetPixel() {
+		Image image = new Image(20, 10, Palette.WHITE);
+		image.setColor(Palette.RED);
+		image.fillRectangle(5, 2, 6, 4);
+
+		int[] argb = new int[20 * 10];
+		image.getPixels(0, 0, 20, 10, argb);
+
+		for (int y = 0; y < 10; y++) {
+			for (int x = 0; x < 20; x++) {
+				assertEquals(image.getPixel(x, y).getRGB(), argb[y * 20 + x]);
+			}
+		}
+	}
+
+	@Test
+	public void setPixelsThenGetPixels() {
+		Image image = new Image(8, 8, Palette.TRANSPARENT);
+		int[] section = new int[3 * 2];
+		for (int i = 0; i < section.length; i++) {
+			section[i] = 0xFF000000 | i * 0x101010;
+		}
+
+		image.setPixels(4, 5, 3, 2, section);
+
+		int[] result = new int[3 * 2];
+		image.getPixels(4, 5, 3, 2, result);
+		assertArrayEquals(section, result);
+		assertEquals(0, image.getPixel(3, 5).getAlpha());
+		assertEquals(section[4], image.getPixel(5, 6).getRGB());
+	}
+
+	@Test
+	public void lockPixelsWritesIntoImage() {
+		Image image = new Image(4, 4, Palette.WHITE);
+
+		try (PixelAccessor pixels = image.lockPixels()) {
+			pixels.set(1, 2, 0xFF00FF00);
+			pixels.getBuffer().put(0, 0xFF0000FF);
+		}
+
+		assertEquals(0xFF00FF00, image.getPixel(1, 2).getRGB());
+		assertEquals(0xFF0000FF, image.getPixel(0, 0).getRGB());
+	}
+
+	@Test
+	public void parallelShadeMatchesSequentialShade() {
+		Image parallel = new Image(300, 200, Palette.WHITE);
+		Image sequential = new Image(300, 200, Palette.WHITE);
+		PixelShader shader = (x, y, argb) -> 0xFF000000 | ((x * y) & 0xFF) << 8 | (argb & 0xFF);
+
+		parallel.shade(shader);
+		sequential.shade(shader, false);
+
+		int[] expected = new int[300 * 200];
+		int[] actual = new int[300 * 200];
+		sequential.getPixels(0, 0, 300, 200, expected);
+		parallel.getPixels(0, 0, 300, 200, actual);
+		assertArrayEquals(expected, actual);
+		assertEquals(0xFF00C8FF, actual[20 * 300 + 10]);
+	}
+
+	@Test(expected = IllegalStateException.class)
+	public void lockingTwiceShouldThrow() {
+		Image image = new Image(4, 4);
+		image.lockPixels();
+		image.lockPixels();
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void sectionOutsideOfImageShouldThrow() {
+		Image image = new Image(8, 8);
+		image.getPixels(4, 4, 5, 1, new int[5]);
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void arrayTooSmallShouldThrow() {
+		Image image = new Image(8, 8);
+		image.setPixels(0, 0, 4, 4, new int[15]);
+	}
+}
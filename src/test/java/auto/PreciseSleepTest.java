@@ -0,0 +1,24 @@
+package auto;
+
+import codedraw.PreciseSleep;
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+public class PreciseSleepTest {
+	@Test
+	public void neverReturnsBeforeTheDeadline() {
+		for (int i = 0; i < 20; i++) {
+			long deadline = System.nanoTime() + 3_000_000;
+			PreciseSleep.until(deadline);
+			assertTrue(System.nanoTime() - deadline >= 0);
+		}
+	}
+
+	@Test
+	public void passedDeadlineReturnsImmediately() {
+		long start = System.nanoTime();
+		PreciseSleep.until(start - 1_000_000_000);
+		assertTrue(System.nanoTime() - start < 100_000_000);
+	}
+}
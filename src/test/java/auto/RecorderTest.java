@@ -0,0 +1,121 @@
+package auto;
+
+import codedraw.*;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import javax.imageio.ImageIO;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+
+import static org.junit.Assert.*;
+
+public class RecorderTest {
+	@Rule
+	public TemporaryFolder folder = new TemporaryFolder();
+
+	@Test
+	public void imageSequenceWritesNumberedFiles() throws IOException {
+		String pattern = new File(folder.getRoot(), "frame%03d.png").getPath();
+
+		HeadlessCanvas.run(new Animation() {
+			private int frame = 0;
+
+			@Override
+			public void draw(Image canvas) {
+				canvas.clear(frame++ % 2 == 0 ? Palette.RED : Palette.BLUE);
+			}
+		}, 16, 8, 5, Recorder.toImageSequence(pattern, ImageFormat.PNG));
+
+		for (int i = 0; i < 5; i++) {
+			BufferedImage frame = ImageIO.read(new File(String.format(pattern, i)));
+			assertEquals(16, frame.getWidth());
+			assertEquals(i % 2 == 0 ? Palette.RED.getRGB() : Palette.BLUE.getRGB(), frame.getRGB(3, 3));
+		}
+		assertFalse(new File(String.format(pattern, 5)).exists());
+	}
+
+	@Test
+	public void videoContainsEveryFrame() throws IOException {
+		File video = new File(folder.getRoot(), "video.avi");
+		Image image = new Image(32, 24, Palette.WHITE);
+
+		try (Recorder recorder = Recorder.toVideo(video.getPath(), 30)) {
+			for (int i = 0; i < 10; i++) {
+				image.fillCircle(i * 3, 12, 4);
+				recorder.record(image);
+			}
+		}
+
+		ByteBuffer avi = ByteBuffer.wrap(Files.readAllBytes(video.toPath())).order(ByteOrder.LITTLE_ENDIAN);
+		assertEquals("RIFF", fourCC(avi, 0));
+		assertEquals(avi.capacity() - 8, avi.getInt(4));
+		assertEquals("MJPG", fourCC(avi, 112));
+		assertEquals(10, avi.getInt(48));
+		assertEquals(30, avi.getInt(132));
+		assertEquals(32, avi.getInt(64));
+		assertEquals(24, avi.getInt(68));
+		assertEquals("00dc", fourCC(avi, 224));
+
+		int firstFrameSize = avi.getInt(228);
+		BufferedImage firstFrame = ImageIO.read(new ByteArrayInputStream(avi.array(), 232, firstFrameSize));
+		assertEquals(32, firstFrame.getWidth());
+	}
+
+	@Test
+	public void droppedFramesAreRepeatedInVideo() throws IOException {
+		File video = new File(folder.getRoot(), "dropped.avi");
+		Image image = new Image(400, 400, Palette.WHITE);
+
+		Recorder recorder = Recorder.toVideo(video.getPath(), 30, Backpressure.DROP, 1);
+		for (int i = 0; i < 50; i++) {
+			recorder.record(image);
+		}
+		recorder.close();
+
+		assertEquals(50, recorder.getRecordedFrames());
+		assertTrue(recorder.getDroppedFrames() < 50);
+		assertTrue(recorder.isClosed());
+
+		ByteBuffer avi = ByteBuffer.wrap(Files.readAllBytes(video.toPath())).order(ByteOrder.LITTLE_ENDIAN);
+		assertEquals(50, avi.getInt(48));
+	}
+
+	@Test
+	public void translucentPixelsMatchImageSave() throws IOException {
+		Image image = new Image(8, 8, Palette.TRANSPARENT);
+		image.setColor(Palette.fromRGBA(200, 40, 90, 100));
+		image.fillRectangle(0, 0, 4, 8);
+		String expectedPath = new File(folder.getRoot(), "expected.png").getPath();
+		String pattern = new File(folder.getRoot(), "recorded%d.png").getPath();
+
+		Image.save(image, expectedPath, ImageFormat.PNG);
+		try (Recorder recorder = Recorder.toImageSequence(pattern, ImageFormat.PNG)) {
+			recorder.record(image);
+		}
+
+		BufferedImage expected = ImageIO.read(new File(expectedPath));
+		BufferedImage recorded = ImageIO.read(new File(String.format(pattern, 0)));
+		assertEquals(expected.getRGB(1, 1), recorded.getRGB(1, 1));
+		assertEquals(expected.getRGB(6, 6), recorded.getRGB(6, 6));
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void videoFramesOfDifferentSizeShouldThrow() {
+		try (Recorder recorder = Recorder.toVideo(new File(folder.getRoot(), "size.avi").getPath(), 30)) {
+			recorder.record(new Image(10, 10));
+			recorder.record(new Image(10, 11));
+		}
+	}
+
+	private static String fourCC(ByteBuffer buffer, int index) {
+		return new String(buffer.array(), index, 4, StandardCharsets.US_ASCII);
+	}
+}
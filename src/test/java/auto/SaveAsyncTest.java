@@ -0,0 +1,63 @@
+package auto;
+
+import codedraw.*;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.awt.Color;
+import java.io.File;
+import java.util.Random;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+
+import static org.junit.Assert.*;
+
+public class SaveAsyncTest {
+	@Rule
+	public TemporaryFolder folder = new TemporaryFolder();
+
+	@Test
+	public void savesTheSamePixelsAsSave() {
+		// large enough to be split into many chunks that are compressed in parallel
+		Image image = new Image(700, 900, Palette.TRANSPARENT);
+		Random random = new Random(42);
+		for (int i = 0; i < 300; i++) {
+			image.setColor(new Color(random.nextInt(256), random.nextInt(256), random.nextInt(256), random.nextInt(256)));
+			image.fillCircle(random.nextInt(700), random.nextInt(900), random.nextInt(60));
+		}
+
+		String expectedPath = new File(folder.getRoot(), "expected.png").getPath();
+		String actualPath = new File(folder.getRoot(), "actual.png").getPath();
+		Image.save(image, expectedPath, ImageFormat.PNG);
+		Image.saveAsync(image, actualPath, ImageFormat.PNG).join();
+
+		assertPixelsEqual(Image.fromFile(expectedPath), Image.fromFile(actualPath));
+	}
+
+	@Test
+	public void drawingAfterSaveAsyncDoesNotChangeTheSavedImage() {
+		Image image = new Image(64, 64, Palette.RED);
+		String path = new File(folder.getRoot(), "red.png").getPath();
+
+		CompletableFuture<Void> saved = Image.saveAsync(image, path, ImageFormat.PNG);
+		image.clear(Palette.BLUE);
+		saved.join();
+
+		assertEquals(Palette.RED, Image.fromFile(path).getPixel(32, 32));
+	}
+
+	@Test(expected = CompletionException.class)
+	public void invalidPathCompletesExceptionally() {
+		String path = new File(folder.getRoot(), "missing/directory/image.png").getPath();
+		Image.saveAsync(new Image(10, 10), path, ImageFormat.PNG).join();
+	}
+
+	private static void assertPixelsEqual(Image expected, Image actual) {
+		int[] expectedPixels = new int[expected.getWidth() * expected.getHeight()];
+		int[] actualPixels = new int[actual.getWidth() * actual.getHeight()];
+		expected.getPixels(0, 0, expected.getWidth(), expected.getHeight(), expectedPixels);
+		actual.getPixels(0, 0, actual.getWidth(), actual.getHeight(), actualPixels);
+		assertArrayEquals(expectedPixels, actualPixels);
+	}
+}
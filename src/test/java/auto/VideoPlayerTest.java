@@ -0,0 +1,107 @@
+package auto;
+
+import codedraw.*;
+import codedraw.opencv.VideoPlayer;
+import nu.pattern.OpenCV;
+import org.junit.BeforeClass;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+
+import static org.junit.Assert.*;
+
+public class VideoPlayerTest {
+	private static final int FRAME_COUNT = 12;
+
+	@Rule
+	public TemporaryFolder folder = new TemporaryFolder();
+
+	@BeforeClass
+	public static void loadOpenCV() {
+		OpenCV.loadLocally();
+	}
+
+	// Every frame is split into a black and a white part, the black part grows by 4 pixels per frame.
+	private String createVideo() {
+		String path = new File(folder.getRoot(), "video.avi").getPath();
+		try (Recorder recorder = Recorder.toVideo(path, 60)) {
+			Image image = new Image(64, 16);
+			for (int i = 0; i < FRAME_COUNT; i++) {
+				image.clear(Palette.WHITE);
+				image.fillRectangle(0, 0, (i + 1) * 4, 16);
+				recorder.record(image);
+			}
+		}
+		return path;
+	}
+
+	private static int frameIndexOf(Image canvas) {
+		for (int i = 0; i < FRAME_COUNT; i++) {
+			if (canvas.getPixel((i + 1) * 4 + 1, 8).getRed() > 128) {
+				return i;
+			}
+		}
+		return FRAME_COUNT - 1;
+	}
+
+	@Test
+	public void playsEveryFrameAtTheFrameRate() {
+		try (VideoPlayer player = new VideoPlayer(createVideo())) {
+			assertEquals(64, player.getWidth());
+			assertEquals(16, player.getHeight());
+			assertEquals(60, player.getFramesPerSecond(), 0.01);
+
+			Image canvas = new Image(64, 16);
+			long start = System.nanoTime();
+			int frames = 0;
+			while (player.drawNextFrame(canvas)) {
+				assertEquals(frames + player.getDroppedFrames(), player.getCurrentFrame());
+				assertEquals(player.getCurrentFrame(), frameIndexOf(canvas));
+				frames++;
+			}
+			long elapsedMilliseconds = (System.nanoTime() - start) / 1_000_000;
+
+			assertEquals(FRAME_COUNT, frames + player.getDroppedFrames());
+			assertTrue("played for " + elapsedMilliseconds + " ms", elapsedMilliseconds >= (FRAME_COUNT - 1) * 1000 / 60 - 2);
+			assertFalse(player.drawNextFrame(canvas));
+		}
+	}
+
+	@Test
+	public void seekAndLoop() {
+		try (VideoPlayer player = new VideoPlayer(createVideo())) {
+			Image canvas = new Image(64, 16);
+
+			player.seek(FRAME_COUNT - 2);
+			assertTrue(player.drawNextFrame(canvas));
+			assertEquals(FRAME_COUNT - 2, player.getCurrentFrame());
+			assertEquals(FRAME_COUNT - 2, frameIndexOf(canvas));
+
+			player.setLooping(true);
+			assertTrue(player.drawNextFrame(canvas));
+			assertTrue(player.drawNextFrame(canvas));
+			assertEquals(0, player.getCurrentFrame());
+			assertEquals(0, frameIndexOf(canvas));
+		}
+	}
+
+	// OpenCV reads a numbered image sequence like a video, the size of the video is the size of the first image
+	@Test(expected = IllegalArgumentException.class)
+	public void decoderFailureIsThrownByDrawNextFrame() {
+		String pattern = new File(folder.getRoot(), "frame%02d.png").getPath();
+		Image.save(new Image(64, 16), String.format(pattern, 0), ImageFormat.PNG);
+		Image.save(new Image(32, 16), String.format(pattern, 1), ImageFormat.PNG);
+
+		try (VideoPlayer player = new VideoPlayer(pattern)) {
+			Image canvas = new Image(64, 16);
+			while (player.drawNextFrame(canvas)) { }
+		}
+	}
+
+	@Test(expected = RuntimeException.class)
+	public void missingVideoShouldThrow() {
+		new VideoPlayer(new File(folder.getRoot(), "missing.avi").getPath());
+	}
+}
@@ -0,0 +1,130 @@
+package codedraw;
+
+import org.junit.Test;
+
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.locks.LockSupport;
+
+import static org.junit.Assert.*;
+
+public class ConcurrentQueueTest {
+	@Test
+	public void singleThreadAcrossSegments() {
+		ConcurrentQueue<Integer> queue = new ConcurrentQueue<>(4);
+		assertTrue(queue.isEmpty());
+
+		for (int i = 0; i < 10; i++) {
+			queue.push(i);
+		}
+		for (int i = 0; i < 10; i++) {
+			assertFalse(queue.isEmpty());
+			assertEquals(i, (int)queue.peek());
+			assertEquals(i, (int)queue.pop());
+		}
+		assertTrue(queue.isEmpty());
+	}
+
+	// The producer pauses now and then, so that the consumer regularly runs out of elements and has to park.
+	@Test(timeout = 30_000)
+	public void producerAndConsumerKeepOrderWithoutLoss() throws InterruptedException {
+		int elementCount = 200_000;
+		ConcurrentQueue<Integer> queue = new ConcurrentQueue<>(64);
+		AtomicReference<Throwable> failure = new AtomicReference<>();
+
+		Thread producer = new Thread(() -> {
+			for (int i = 0; i < elementCount; i++) {
+				queue.push(i);
+				if (i % 5_000 == 0) {
+					LockSupport.parkNanos(1_000_000);
+				}
+			}
+		});
+		Thread consumer = new Thread(() -> {
+			try {
+				for (int i = 0; i < elementCount; i++) {
+					int element = queue.pop();
+					if (element != i) throw new AssertionError("expected " + i + " but was " + element);
+				}
+			}
+			catch (Throwable t) {
+				failure.set(t);
+			}
+		});
+
+		consumer.start();
+		producer.start();
+		producer.join();
+		consumer.join();
+
+		assertNull(failure.get());
+		assertTrue(queue.isEmpty());
+	}
+
+	// Every element must be popped by exactly one consumer and each consumer must see its elements in order.
+	@Test(timeout = 30_000)
+	public void severalConsumersNeitherLoseNorDuplicateElements() throws InterruptedException {
+		int elementCount = 200_000;
+		int consumerCount = 4;
+		ConcurrentQueue<Integer> queue = new ConcurrentQueue<>(64);
+		AtomicIntegerArray popCounts = new AtomicIntegerArray(elementCount);
+		AtomicReference<Throwable> failure = new AtomicReference<>();
+
+		Thread[] consumers = new Thread[consumerCount];
+		for (int c = 0; c < consumerCount; c++) {
+			consumers[c] = new Thread(() -> {
+				try {
+					int last = -1;
+					while (true) {
+						int element = queue.pop();
+						if (element < 0) return;
+						if (element <= last) throw new AssertionError(element + " was popped after " + last);
+						last = element;
+						popCounts.incrementAndGet(element);
+					}
+				}
+				catch (Throwable t) {
+					failure.set(t);
+				}
+			});
+			consumers[c].start();
+		}
+
+		for (int i = 0; i < elementCount; i++) {
+			queue.push(i);
+			if (i % 5_000 == 0) {
+				LockSupport.parkNanos(1_000_000);
+			}
+		}
+		for (int c = 0; c < consumerCount; c++) {
+			queue.push(-1);
+		}
+		for (Thread consumer : consumers) {
+			consumer.join();
+		}
+
+		assertNull(failure.get());
+		for (int i = 0; i < elementCount; i++) {
+			assertEquals("pop count of " + i, 1, popCounts.get(i));
+		}
+		assertTrue(queue.isEmpty());
+	}
+
+	@Test(timeout = 10_000)
+	public void parkedConsumerIsWokenByPush() throws InterruptedException {
+		ConcurrentQueue<String> queue = new ConcurrentQueue<>(2);
+		AtomicReference<String> popped = new AtomicReference<>();
+
+		Thread consumer = new Thread(() -> popped.set(queue.pop()));
+		consumer.start();
+		while (consumer.getState() != Thread.State.WAITING) {
+			Thread.sleep(1);
+		}
+
+		queue.push("event");
+		consumer.join();
+
+		assertEquals("event", popped.get());
+		assertTrue(queue.isEmpty());
+	}
+}
@@ -0,0 +1,45 @@
+package codedraw;
+
+import org.junit.Test;
+
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.Assert.*;
+
+public class DecoupledAnimationTest {
+	@Test(timeout = 10_000)
+	public void failingDrawStopsTheSimulationThread() {
+		AtomicReference<Thread> simulationThread = new AtomicReference<>();
+
+		SnapshotAnimation<Integer> animation = new SnapshotAnimation<Integer>() {
+			private int tick = 0;
+
+			@Override
+			public void simulate() {
+				tick++;
+			}
+
+			@Override
+			public Integer createSnapshot() {
+				simulationThread.set(Thread.currentThread());
+				return tick;
+			}
+
+			@Override
+			public void draw(Image canvas, Integer snapshot) {
+				throw new IllegalStateException("draw failed");
+			}
+		};
+
+		try {
+			CodeDrawGUI.runDecoupled(animation, new EventScanner(), () -> false, image -> { }, new Image(10, 10), 100, 100, new FrameStats(), null);
+			fail("the exception thrown by draw must be rethrown");
+		}
+		catch (IllegalStateException e) {
+			assertEquals("draw failed", e.getMessage());
+		}
+
+		assertNotNull(simulationThread.get());
+		assertFalse(simulationThread.get().isAlive());
+	}
+}
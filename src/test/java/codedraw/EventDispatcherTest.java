@@ -0,0 +1,130 @@
+package codedraw;
+
+import org.junit.Test;
+
+import javax.swing.*;
+import java.awt.event.KeyEvent;
+import java.awt.event.MouseEvent;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+public class EventDispatcherTest {
+	private static final JPanel SOURCE = new JPanel();
+
+	private static class KeyDownOnly implements Animation {
+		public final List<String> calls = new ArrayList<>();
+
+		@Override
+		public void onKeyDown(KeyDownEvent event) {
+			calls.add("keyDown " + event.getKey());
+		}
+
+		@Override
+		public void draw(Image canvas) { }
+	}
+
+	private static class InheritedKeyDown extends KeyDownOnly { }
+
+	private static class MouseMoveAndWindowClose implements Animation {
+		public final List<String> calls = new ArrayList<>();
+
+		@Override
+		public void onMouseMove(MouseMoveEvent event) {
+			calls.add("mouseMove " + event.getX());
+		}
+
+		@Override
+		public void onWindowClose(WindowCloseEvent event) {
+			calls.add("windowClose");
+		}
+
+		@Override
+		public void draw(Image canvas) { }
+	}
+
+	@Test
+	public void onlyTheOverriddenKeyDownIsDelivered() {
+		KeyDownOnly animation = new KeyDownOnly();
+
+		dispatchAll(new EventDispatcher(animation));
+
+		assertEquals(Collections.singletonList("keyDown A"), animation.calls);
+	}
+
+	@Test
+	public void inheritedOverrideIsDelivered() {
+		InheritedKeyDown animation = new InheritedKeyDown();
+
+		dispatchAll(new EventDispatcher(animation));
+
+		assertEquals(Collections.singletonList("keyDown A"), animation.calls);
+	}
+
+	@Test
+	public void anonymousSubclassReceivesItsOverriddenEvents() {
+		List<String> calls = new ArrayList<>();
+		Animation animation = new Animation() {
+			@Override
+			public void onMouseMove(MouseMoveEvent event) {
+				calls.add("mouseMove " + event.getX());
+			}
+
+			@Override
+			public void onKeyUp(KeyUpEvent event) {
+				calls.add("keyUp " + event.getKey());
+			}
+
+			@Override
+			public void draw(Image canvas) { }
+		};
+
+		dispatchAll(new EventDispatcher(animation));
+
+		assertEquals(Arrays.asList("keyUp A", "mouseMove 5"), calls);
+	}
+
+	@Test
+	public void combinedAnimationDeliversEachEventToTheAnimationsThatOverrideIt() {
+		KeyDownOnly keyDown = new KeyDownOnly();
+		MouseMoveAndWindowClose mouseMove = new MouseMoveAndWindowClose();
+		Animation drawOnly = canvas -> { };
+
+		dispatchAll(new EventDispatcher(Animation.combine(keyDown, drawOnly, mouseMove)));
+
+		assertEquals(Collections.singletonList("keyDown A"), keyDown.calls);
+		assertEquals(Arrays.asList("mouseMove 5", "windowClose"), mouseMove.calls);
+	}
+
+	@Test
+	public void eventsAreDispatchedFromTheEventScanner() {
+		KeyDownOnly animation = new KeyDownOnly();
+		EventScanner es = new EventScanner();
+		for (Event event : createEvents()) {
+			es.push(event);
+		}
+
+		new EventDispatcher(animation).dispatchEvents(es);
+
+		assertEquals(Collections.singletonList("keyDown A"), animation.calls);
+		assertFalse(es.hasEventNow());
+	}
+
+	private static void dispatchAll(EventDispatcher dispatcher) {
+		for (Event event : createEvents()) {
+			dispatcher.dispatch(event);
+		}
+	}
+
+	private static List<Event> createEvents() {
+		return Arrays.asList(
+			new KeyDownEvent(new KeyEvent(SOURCE, KeyEvent.KEY_PRESSED, 0, 0, KeyEvent.VK_A, 'a')),
+			new KeyUpEvent(new KeyEvent(SOURCE, KeyEvent.KEY_RELEASED, 0, 0, KeyEvent.VK_A, 'a')),
+			new MouseMoveEvent(new MouseEvent(SOURCE, MouseEvent.MOUSE_MOVED, 0, 0, 5, 7, 0, false)),
+			new WindowCloseEvent()
+		);
+	}
+}
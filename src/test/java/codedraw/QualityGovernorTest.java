@@ -0,0 +1,72 @@
+package codedraw;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+
+import static org.junit.Assert.*;
+
+public class QualityGovernorTest {
+	// 60 frames per second
+	private static final long BUDGET = 1_000_000_000L / 60;
+
+	private static void paintFrames(QualityGovernor governor, FrameStats stats, int frameCount, long paintNanoseconds) {
+		for (int i = 0; i < frameCount; i++) {
+			stats.record(FramePhase.PAINT_LATENCY, 100_000);
+			stats.record(FramePhase.PAINT, paintNanoseconds);
+			governor.update(stats);
+		}
+	}
+
+	@Test
+	public void lowersQualityUnderLoadAndRecoversAfterwards() {
+		ArrayList<Interpolation> changes = new ArrayList<>();
+		QualityGovernor governor = new QualityGovernor(changes::add, 60);
+		FrameStats stats = new FrameStats();
+		assertEquals(Interpolation.BICUBIC, governor.getInterpolation());
+
+		paintFrames(governor, stats, 30, BUDGET);
+		assertEquals(Interpolation.BILINEAR, governor.getInterpolation());
+		paintFrames(governor, stats, 30, BUDGET);
+		assertEquals(Interpolation.NEAREST_NEIGHBOR, governor.getInterpolation());
+		paintFrames(governor, stats, 300, BUDGET);
+		assertEquals(Interpolation.NEAREST_NEIGHBOR, governor.getInterpolation());
+
+		paintFrames(governor, stats, 60, BUDGET / 10);
+		assertEquals(Interpolation.BICUBIC, governor.getInterpolation());
+		assertEquals(5, changes.size());
+	}
+
+	@Test
+	public void slowDrawingDoesNotLowerQuality() {
+		QualityGovernor governor = new QualityGovernor(interpolation -> { }, 60);
+		FrameStats stats = new FrameStats();
+
+		for (int i = 0; i < 300; i++) {
+			stats.record(FramePhase.DRAW, 5 * BUDGET);
+			paintFrames(governor, stats, 1, BUDGET / 10);
+		}
+
+		assertEquals(Interpolation.BICUBIC, governor.getInterpolation());
+	}
+
+	@Test
+	public void raisingIsDelayedWhenItMakesPaintingTooSlowAgain() {
+		QualityGovernor governor = new QualityGovernor(interpolation -> { }, 60);
+		FrameStats stats = new FrameStats();
+
+		paintFrames(governor, stats, 30, BUDGET);
+		assertEquals(Interpolation.BILINEAR, governor.getInterpolation());
+
+		// bilinear is fast enough, bicubic is not
+		paintFrames(governor, stats, 30, BUDGET / 10);
+		assertEquals(Interpolation.BICUBIC, governor.getInterpolation());
+		paintFrames(governor, stats, 30, BUDGET);
+		assertEquals(Interpolation.BILINEAR, governor.getInterpolation());
+
+		paintFrames(governor, stats, 30, BUDGET / 10);
+		assertEquals(Interpolation.BILINEAR, governor.getInterpolation());
+		paintFrames(governor, stats, 30, BUDGET / 10);
+		assertEquals(Interpolation.BICUBIC, governor.getInterpolation());
+	}
+}
@@ -0,0 +1,71 @@
+package codedraw;
+
+import org.junit.Test;
+
+import java.util.function.LongSupplier;
+
+import static org.junit.Assert.*;
+
+public class SchedulerTest {
+	private static final long FRAME = 10_000_000;
+
+	private static class TestClock implements LongSupplier {
+		private long now = 0;
+
+		@Override
+		public long getAsLong() {
+			return now;
+		}
+	}
+
+	@Test
+	public void jitterIsHowLateATaskStarted() {
+		TestClock clock = new TestClock();
+		Scheduler scheduler = new Scheduler(100, true, clock);
+
+		assertTrue(scheduler.shouldDoTask());
+		assertEquals(0, scheduler.getLastJitterNanoseconds());
+
+		clock.now = FRAME - 1;
+		assertFalse(scheduler.shouldDoTask());
+		assertEquals(1, scheduler.timeUntilNextTask());
+
+		clock.now = FRAME + 3_000_000;
+		assertTrue(scheduler.shouldDoTask());
+		assertEquals(3_000_000, scheduler.getLastJitterNanoseconds());
+
+		clock.now = 2 * FRAME + 250_000;
+		assertTrue(scheduler.shouldDoTask());
+		assertEquals(250_000, scheduler.getLastJitterNanoseconds());
+	}
+
+	@Test
+	public void droppedFramesDoNotCountAsJitter() {
+		TestClock clock = new TestClock();
+		Scheduler scheduler = new Scheduler(100, true, clock);
+		assertTrue(scheduler.shouldDoTask());
+
+		clock.now = 3 * FRAME + 1_000_000;
+		assertFalse(scheduler.shouldDoTask());
+		assertEquals(2, scheduler.getDroppedTasks());
+		assertTrue(scheduler.shouldDoTask());
+		assertEquals(1_000_000, scheduler.getLastJitterNanoseconds());
+	}
+
+	@Test
+	public void jitterIsRecordedInFrameStats() {
+		TestClock clock = new TestClock();
+		Scheduler scheduler = new Scheduler(100, true, clock);
+		FrameStats stats = new FrameStats();
+
+		for (int i = 0; i < 100; i++) {
+			clock.now = i * FRAME + (i % 10 == 0 ? 2_000_000 : 100_000);
+			assertTrue(scheduler.shouldDoTask());
+			stats.record(FramePhase.JITTER, scheduler.getLastJitterNanoseconds());
+		}
+
+		assertEquals(100, stats.getSampleCount(FramePhase.JITTER));
+		assertEquals(100_000, stats.getP50Nanoseconds(FramePhase.JITTER));
+		assertEquals(2_000_000, stats.getP95Nanoseconds(FramePhase.JITTER));
+	}
+}